@@ -0,0 +1,36 @@
+#!/usr/bin/env bash
+#
+# Sobe a aplicação no profile h2 e executa o gerador de carga (src/load/java) contra ela,
+# com o mesmo mix de requisições do antigo loader.py.
+#
+# uso: ./benchmark/load/run.sh [argumentos do LoadGenerator]
+#   ex.: ./benchmark/load/run.sh --model open --rate 200 --duration 60
+#        ./benchmark/load/run.sh --model closed --users 50 --rate 200 --duration 60
+#
+# com a aplicação já em execução, o gerador também roda direto pelo profile load do pom:
+#   mvn -P load verify -Dload.args="--model open --rate 200 --duration 60"
+#
+set -euo pipefail
+
+cd "$(dirname "$0")/../.."
+
+PORT="${PORT:-8080}"
+JAVA="${JAVA_HOME:+$JAVA_HOME/bin/}java"
+OUT="target/load-$(date +%Y%m%d-%H%M%S)"
+
+mvn -B -q -P load -DskipTests package dependency:build-classpath \
+    -Dmdep.includeScope=test -Dmdep.outputFile=target/load.classpath
+JAR="$(ls target/store-observability-*.jar | grep -v original | head -1)"
+
+"$JAVA" -jar "$JAR" --spring.profiles.active=h2 --server.port="$PORT" \
+    --api.products.endpoint.url="http://localhost:$PORT/products" > "target/load-app.log" 2>&1 &
+PID=$!
+trap 'kill $PID 2>/dev/null || true' EXIT
+
+until curl -sf "http://localhost:$PORT/actuator/health" > /dev/null; do sleep 1; done
+
+mkdir -p "$OUT"
+"$JAVA" -cp "target/test-classes:$(cat target/load.classpath)" store.load.LoadGenerator \
+    --base-url "http://localhost:$PORT" --hgrm-dir "$OUT" "$@" | tee "$OUT/summary.txt"
+
+echo "resultados em $OUT"
@@ -0,0 +1,119 @@
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Closed-model load for GET /orders: N clients issue requests back to back for a fixed time.
+ *
+ * usage: java OrdersBenchmark.java <label> <baseUrl> <concurrency> <warmupSeconds> <seconds> <seedOrders>
+ */
+public class OrdersBenchmark {
+
+    private static final String ORDER = "{\"items\":[{\"product\":{\"id\":1},\"quantity\":2},{\"product\":{\"id\":2},\"quantity\":1}]}";
+
+    public static void main(String[] args) throws Exception {
+        final String label = args.length > 0 ? args[0] : "run";
+        final String baseUrl = args.length > 1 ? args[1] : "http://localhost:8080";
+        final int concurrency = args.length > 2 ? Integer.parseInt(args[2]) : 400;
+        final int warmupSeconds = args.length > 3 ? Integer.parseInt(args[3]) : 15;
+        final int seconds = args.length > 4 ? Integer.parseInt(args[4]) : 60;
+        final int seedOrders = args.length > 5 ? Integer.parseInt(args[5]) : 200;
+
+        final HttpClient client = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+
+        for (int i = 0; i < seedOrders; i++) {
+            client.send(HttpRequest.newBuilder(URI.create(baseUrl + "/orders"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(ORDER))
+                    .build(), HttpResponse.BodyHandlers.discarding());
+        }
+
+        final HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/orders"))
+                .timeout(Duration.ofSeconds(30))
+                .GET()
+                .build();
+
+        run(client, request, concurrency, warmupSeconds);
+        final Result result = run(client, request, concurrency, seconds);
+
+        final long[] latencies = result.latencies();
+        Arrays.sort(latencies);
+        System.out.printf("%s concurrency=%d duration=%ds requests=%d errors=%d throughput=%.1f req/s p50=%.1fms p99=%.1fms max=%.1fms%n",
+                label, concurrency, seconds, latencies.length, result.errors(),
+                latencies.length / (double) seconds,
+                percentile(latencies, 0.50), percentile(latencies, 0.99), percentile(latencies, 1.0));
+    }
+
+    private static Result run(HttpClient client, HttpRequest request, int concurrency, int seconds) throws InterruptedException {
+        final long end = System.nanoTime() + Duration.ofSeconds(seconds).toNanos();
+        final List<long[]> perThread = new ArrayList<>();
+        final AtomicLong errors = new AtomicLong();
+        final CountDownLatch done = new CountDownLatch(concurrency);
+
+        for (int t = 0; t < concurrency; t++) {
+            final LongList latencies = new LongList();
+            final Thread thread = new Thread(() -> {
+                try {
+                    while (System.nanoTime() < end) {
+                        final long start = System.nanoTime();
+                        try {
+                            final HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                            if (response.statusCode() >= 400) {
+                                errors.incrementAndGet();
+                            }
+                        } catch (Exception e) {
+                            errors.incrementAndGet();
+                        }
+                        latencies.add(System.nanoTime() - start);
+                    }
+                } finally {
+                    synchronized (perThread) {
+                        perThread.add(latencies.toArray());
+                    }
+                    done.countDown();
+                }
+            });
+            thread.start();
+        }
+        done.await();
+
+        final long[] all = perThread.stream().flatMapToLong(Arrays::stream).toArray();
+        return new Result(all, errors.get());
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        final int index = (int) Math.min(sorted.length - 1, Math.ceil(p * sorted.length) - 1);
+        return sorted[Math.max(0, index)] / 1_000_000.0;
+    }
+
+    private record Result(long[] latencies, long errors) {
+    }
+
+    private static final class LongList {
+        private long[] values = new long[1024];
+        private int size;
+
+        void add(long value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        long[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
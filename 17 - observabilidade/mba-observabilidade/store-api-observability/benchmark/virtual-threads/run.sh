@@ -0,0 +1,48 @@
+#!/usr/bin/env bash
+#
+# Compara throughput e p99 de GET /orders com o Tomcat em platform threads e em virtual threads,
+# ambos no profile h2 e no mesmo JDK 21.
+#
+# uso: JAVA_HOME=/caminho/jdk-21 ./benchmark/virtual-threads/run.sh [concorrencia] [segundos]
+#
+set -euo pipefail
+
+cd "$(dirname "$0")/../.."
+
+CONCURRENCY="${1:-400}"
+SECONDS_PER_RUN="${2:-60}"
+WARMUP_SECONDS="${WARMUP_SECONDS:-15}"
+SEED_ORDERS="${SEED_ORDERS:-200}"
+PORT="${PORT:-8080}"
+JAVA="${JAVA_HOME:+$JAVA_HOME/bin/}java"
+RESULTS="benchmark/virtual-threads/results-$(date +%Y%m%d-%H%M%S).txt"
+
+if [ "$("$JAVA" -XshowSettings:properties -version 2>&1 | awk -F'= ' '/java.specification.version/ {print $2}')" -lt 21 ]; then
+  echo "JAVA_HOME precisa apontar para um JDK 21+" >&2
+  exit 1
+fi
+
+mvn -B -q -P java21 -DskipTests package
+JAR="$(ls target/store-observability-*.jar | grep -v original | head -1)"
+
+run_mode() {
+  local label="$1" profiles="$2"
+  "$JAVA" -jar "$JAR" --spring.profiles.active="$profiles" --server.port="$PORT" \
+      --api.products.endpoint.url="http://localhost:$PORT/products" > "target/benchmark-$label.log" 2>&1 &
+  local pid=$!
+  trap 'kill $pid 2>/dev/null || true' RETURN
+
+  until curl -sf "http://localhost:$PORT/actuator/health" > /dev/null; do sleep 1; done
+
+  "$JAVA" benchmark/virtual-threads/OrdersBenchmark.java "$label" "http://localhost:$PORT" \
+      "$CONCURRENCY" "$WARMUP_SECONDS" "$SECONDS_PER_RUN" "$SEED_ORDERS" | tee -a "$RESULTS"
+  curl -s "http://localhost:$PORT/actuator/metrics/app_custom_vthreads_pinned" >> "target/benchmark-$label.log" || true
+
+  kill "$pid"
+  wait "$pid" 2>/dev/null || true
+}
+
+run_mode platform h2
+run_mode virtual h2,vthreads
+
+echo "resultados em $RESULTS"
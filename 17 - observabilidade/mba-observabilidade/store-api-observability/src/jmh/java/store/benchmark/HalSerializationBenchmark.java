@@ -0,0 +1,108 @@
+package store.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.hateoas.CollectionModel;
+import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.mediatype.MessageResolver;
+import org.springframework.hateoas.mediatype.hal.CurieProvider;
+import org.springframework.hateoas.mediatype.hal.Jackson2HalModule;
+import org.springframework.hateoas.server.core.DefaultLinkRelationProvider;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import store.Money;
+import store.order.Order;
+import store.order.OrderItem;
+import store.order.OrderModelAssembler;
+import store.order.OrderStatus;
+import store.product.Product;
+
+/**
+ * Serialização de uma página de 100 pedidos (3 itens cada) em application/hal+json, com o
+ * ObjectMapper configurado como o do Spring HATEOAS. O JSON simples da mesma lista serve de
+ * referência para o custo dos links.
+ *
+ * mvn -P jmh verify -Djmh.include=HalSerializationBenchmark -Djmh.args="-prof gc"
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class HalSerializationBenchmark {
+
+	private final ObjectMapper halMapper = halMapper();
+	private final ObjectMapper plainMapper = new ObjectMapper();
+
+	private List<Order> orders;
+	private CollectionModel<EntityModel<Order>> page;
+
+	@Setup
+	public void page() {
+		orders = new ArrayList<>(100);
+		for (int i = 1; i <= 100; i++) {
+			final Order order = new Order();
+			order.setId(i);
+			order.setStatus(i % 2 == 0 ? OrderStatus.IN_PROGRESS : OrderStatus.COMPLETED);
+			order.setTotalPrice(Money.of("149.70"));
+			for (long p = 1; p <= 3; p++) {
+				order.getItems().add(OrderItem.builder()
+						.id(i * 3L + p)
+						.quantity(1)
+						.product(Product.builder()
+								.id(p)
+								.category("smartphones")
+								.title("product " + p)
+								.description("description of product " + p)
+								.price(Money.of("49.90"))
+								.rating(4.5f)
+								.brand("brand")
+								.build())
+						.build());
+			}
+			orders.add(order);
+		}
+
+		final MockHttpServletRequest request = new MockHttpServletRequest("GET", "/orders");
+		request.setServerPort(8080);
+		RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+		try {
+			page = new OrderModelAssembler().toCollectionModel(orders);
+		} finally {
+			RequestContextHolder.resetRequestAttributes();
+		}
+	}
+
+	@Benchmark
+	public byte[] hal() throws JsonProcessingException {
+		return halMapper.writeValueAsBytes(page);
+	}
+
+	@Benchmark
+	public byte[] plain() throws JsonProcessingException {
+		return plainMapper.writeValueAsBytes(orders);
+	}
+
+	private static ObjectMapper halMapper() {
+		final ObjectMapper mapper = new ObjectMapper().registerModule(new Jackson2HalModule());
+		mapper.setHandlerInstantiator(new Jackson2HalModule.HalHandlerInstantiator(
+				new DefaultLinkRelationProvider(), CurieProvider.NONE, MessageResolver.DEFAULTS_ONLY));
+		return mapper;
+	}
+}
@@ -0,0 +1,28 @@
+package store.benchmark;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.openjdk.jmh.Main;
+
+/**
+ * Entrada do profile jmh: executa o {@link Main} do JMH com os argumentos do pom seguidos das
+ * opções de -Djmh.args (ex.: "-prof gc -f 2"), divididas nos espaços. O exec:exec repassa cada
+ * argumento do pom inteiro, então só essas opções precisam ser separadas.
+ */
+public final class JmhLauncher {
+
+	private JmhLauncher() {
+	}
+
+	public static void main(final String[] args) throws Exception {
+		final List<String> jmhArgs = new ArrayList<>(Arrays.asList(args));
+		for (String option : System.getProperty("jmh.args", "").trim().split("\\s+")) {
+			if (!option.isEmpty()) {
+				jmhArgs.add(option);
+			}
+		}
+		Main.main(jmhArgs.toArray(new String[0]));
+	}
+}
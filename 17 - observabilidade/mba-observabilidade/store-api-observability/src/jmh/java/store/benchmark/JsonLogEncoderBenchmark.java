@@ -0,0 +1,103 @@
+package store.benchmark;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.joran.JoranConfigurator;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.spi.LoggingEvent;
+import ch.qos.logback.core.OutputStreamAppender;
+import ch.qos.logback.core.encoder.Encoder;
+import ch.qos.logback.core.joran.spi.JoranException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Custo de codificar um evento de log em JSON: LoggingEventCompositeJsonEncoder configurado como
+ * o antigo stdout_json x CompactJsonEncoder, com o PatternLayoutEncoder do stdout_plain como referência.
+ * Use -prof gc para comparar a alocação por evento.
+ *
+ * mvn -P jmh verify -Djmh.include=JsonLogEncoderBenchmark -Djmh.args="-prof gc"
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JsonLogEncoderBenchmark {
+
+	// caller data resolvido até o método que cria o evento, como se fosse a chamada ao logger
+	private static final String FQCN = LoggingEvent.class.getName();
+
+	@Param({"INFO", "WARN"})
+	public String level;
+
+	private LoggerContext context;
+	private Logger logger;
+	private Encoder<ILoggingEvent> composite;
+	private Encoder<ILoggingEvent> compact;
+	private Encoder<ILoggingEvent> plain;
+
+	@Setup
+	@SuppressWarnings("unchecked")
+	public void setUp() throws JoranException {
+		context = new LoggerContext();
+		final JoranConfigurator configurator = new JoranConfigurator();
+		configurator.setContext(context);
+		configurator.doConfigure(JsonLogEncoderBenchmark.class.getResource("/logback-json-benchmark.xml"));
+
+		logger = context.getLogger("benchmark");
+		composite = ((OutputStreamAppender<ILoggingEvent>) logger.getAppender("composite")).getEncoder();
+		compact = ((OutputStreamAppender<ILoggingEvent>) logger.getAppender("compact")).getEncoder();
+		plain = ((OutputStreamAppender<ILoggingEvent>) logger.getAppender("plain")).getEncoder();
+	}
+
+	@TearDown
+	public void tearDown() {
+		context.stop();
+	}
+
+	@Benchmark
+	public byte[] composite() {
+		return composite.encode(event());
+	}
+
+	@Benchmark
+	public byte[] compact() {
+		return compact.encode(event());
+	}
+
+	@Benchmark
+	public byte[] plain() {
+		return plain.encode(event());
+	}
+
+	// mesmo evento que o OrderController gera em "{} orders retrieved", com o MDC da requisição
+	private ILoggingEvent event() {
+		final LoggingEvent event = new LoggingEvent(FQCN, logger, Level.toLevel(level), "{} orders retrieved", null, new Object[]{100});
+		event.setMDCPropertyMap(Map.of(
+				"traceId", "6f1c0a4e9b2d4c3f8a7e5d6c4b3a2910",
+				"host", "localhost:8080",
+				"appName", "store-api",
+				"appVersion", "0.0.2"));
+		if (event.getLevel().isGreaterOrEqual(Level.WARN)) {
+			// como no appender "async" com callerDataLevel=WARN
+			event.getCallerData();
+		}
+		return event;
+	}
+}
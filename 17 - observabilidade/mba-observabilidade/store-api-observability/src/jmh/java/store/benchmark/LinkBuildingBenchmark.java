@@ -0,0 +1,114 @@
+package store.benchmark;
+
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.hateoas.EntityModel;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import store.order.Order;
+import store.order.OrderController;
+import store.order.OrderModelAssembler;
+import store.order.OrderStatus;
+import store.product.Product;
+import store.product.ProductModelAssembler;
+
+/**
+ * Links de uma página de 100 pedidos: linkTo(methodOn(...)) por link x templates pré-calculados.
+ * Inclui a página equivalente de produtos (ProductModelAssembler). Cada invocação simula uma requisição nova (o base URI é resolvido uma vez por requisição).
+ *
+ * mvn -P jmh verify -Djmh.include=LinkBuildingBenchmark
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LinkBuildingBenchmark {
+
+	private final OrderModelAssembler assembler = new OrderModelAssembler();
+
+	private final ProductModelAssembler productAssembler = new ProductModelAssembler();
+
+	private List<Order> page;
+	private List<Product> products;
+
+	@Setup(Level.Trial)
+	public void page() {
+		page = new ArrayList<>(100);
+		for (int i = 1; i <= 100; i++) {
+			final Order order = new Order();
+			order.setId(i);
+			order.setStatus(i % 2 == 0 ? OrderStatus.IN_PROGRESS : OrderStatus.COMPLETED);
+			page.add(order);
+		}
+		products = new ArrayList<>(100);
+		for (long i = 1; i <= 100; i++) {
+			products.add(Product.builder().id(i).build());
+		}
+	}
+
+	@Setup(Level.Invocation)
+	public void bindRequest() {
+		final MockHttpServletRequest request = new MockHttpServletRequest("GET", "/orders");
+		request.setServerPort(8080);
+		RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+	}
+
+	@TearDown(Level.Invocation)
+	public void resetRequest() {
+		RequestContextHolder.resetRequestAttributes();
+	}
+
+	@Benchmark
+	public List<EntityModel<Order>> linkBuilder() {
+		final List<EntityModel<Order>> models = new ArrayList<>(page.size());
+		for (final Order order : page) {
+			final EntityModel<Order> model = EntityModel.of(order,
+					linkTo(methodOn(OrderController.class).one(order.getId())).withSelfRel(),
+					linkTo(methodOn(OrderController.class).all(0, 100)).withRel("orders"));
+			if (order.getStatus() == OrderStatus.IN_PROGRESS) {
+				model.add(linkTo(methodOn(OrderController.class).cancel(order.getId())).withRel("cancel"));
+				model.add(linkTo(methodOn(OrderController.class).complete(order.getId())).withRel("complete"));
+			}
+			models.add(model);
+		}
+		return models;
+	}
+
+	@Benchmark
+	public List<EntityModel<Order>> linkTemplate() {
+		final List<EntityModel<Order>> models = new ArrayList<>(page.size());
+		for (final Order order : page) {
+			models.add(assembler.toModel(order));
+		}
+		return models;
+	}
+
+	@Benchmark
+	public List<EntityModel<Product>> productLinkTemplate() {
+		final List<EntityModel<Product>> models = new ArrayList<>(products.size());
+		for (final Product product : products) {
+			models.add(productAssembler.toModel(product));
+		}
+		return models;
+	}
+}
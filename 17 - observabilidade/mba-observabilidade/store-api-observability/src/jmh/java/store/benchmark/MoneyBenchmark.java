@@ -0,0 +1,105 @@
+package store.benchmark;
+
+import java.math.BigDecimal;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import store.Money;
+
+/**
+ * BigDecimal x Money (centavos em long) na precificação de um pedido de 20 itens e na soma dos
+ * totais de 10.000 pedidos. Use -prof gc para comparar a alocação (gc.alloc.rate.norm).
+ *
+ * mvn -P jmh verify -Djmh.include=MoneyBenchmark -Djmh.args="-prof gc"
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MoneyBenchmark {
+
+	private static final int ITEMS = 20;
+	private static final int ORDERS = 10_000;
+
+	private final int[] quantities = new int[ITEMS];
+	private final BigDecimal[] decimalPrices = new BigDecimal[ITEMS];
+	private final Money[] prices = new Money[ITEMS];
+
+	private final BigDecimal[] decimalTotals = new BigDecimal[ORDERS];
+	private final Money[] totals = new Money[ORDERS];
+
+	@Setup
+	public void amounts() {
+		final ThreadLocalRandom random = ThreadLocalRandom.current();
+		for (int i = 0; i < ITEMS; i++) {
+			final long cents = random.nextLong(100, 500_000);
+			quantities[i] = random.nextInt(1, 10);
+			decimalPrices[i] = BigDecimal.valueOf(cents, 2);
+			prices[i] = Money.ofCents(cents);
+		}
+		for (int i = 0; i < ORDERS; i++) {
+			final long cents = random.nextLong(100, 5_000_000);
+			decimalTotals[i] = BigDecimal.valueOf(cents, 2);
+			totals[i] = Money.ofCents(cents);
+		}
+	}
+
+	// laço anterior do OrderPricing
+	@Benchmark
+	public BigDecimal pricingBigDecimal() {
+		BigDecimal total = BigDecimal.ZERO;
+		for (int i = 0; i < ITEMS; i++) {
+			total = total.add(decimalPrices[i].multiply(BigDecimal.valueOf(quantities[i])));
+		}
+		return total;
+	}
+
+	// laço atual do OrderPricing
+	@Benchmark
+	public Money pricingMoney() {
+		long total = 0;
+		for (int i = 0; i < ITEMS; i++) {
+			total = Math.addExact(total, Math.multiplyExact(prices[i].cents(), quantities[i]));
+		}
+		return Money.ofCents(total);
+	}
+
+	@Benchmark
+	public BigDecimal aggregationBigDecimal() {
+		BigDecimal total = BigDecimal.ZERO;
+		for (final BigDecimal orderTotal : decimalTotals) {
+			total = total.add(orderTotal);
+		}
+		return total;
+	}
+
+	@Benchmark
+	public Money aggregationMoney() {
+		long total = 0;
+		for (final Money orderTotal : totals) {
+			total = Math.addExact(total, orderTotal.cents());
+		}
+		return Money.ofCents(total);
+	}
+
+	@Benchmark
+	public Money aggregationMoneyPlus() {
+		Money total = Money.ZERO;
+		for (final Money orderTotal : totals) {
+			total = total.plus(orderTotal);
+		}
+		return total;
+	}
+}
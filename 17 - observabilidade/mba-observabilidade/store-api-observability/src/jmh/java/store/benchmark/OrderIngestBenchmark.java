@@ -0,0 +1,110 @@
+package store.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import store.Money;
+import store.StoreApplication;
+import store.order.Order;
+import store.order.OrderBatchWriter;
+import store.order.OrderItem;
+import store.order.OrderRepository;
+import store.order.OrderStatus;
+
+/**
+ * Linhas gravadas por segundo (pedidos + itens): um save por pedido, como nas importações
+ * noturnas atuais, x OrderBatchWriter.persist com inserts em lote JDBC.
+ * Mede apenas a persistência; a resolução de produtos depende do serviço de produtos.
+ *
+ * H2:       mvn -P jmh verify -Djmh.include=OrderIngestBenchmark
+ * Postgres: docker compose -f infra/docker-compose.yml up -d db
+ *           DB_HOST=localhost DB_PORT=25432 POSTGRES_DB=storedb POSTGRES_USER=admin POSTGRES_PASSWORD=P@ssw0rd \
+ *           mvn -P jmh verify -Djmh.include=OrderIngestBenchmark -Djmh.args="-p profile=pg"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class OrderIngestBenchmark {
+
+	private static final int ORDERS = 1000;
+	private static final int ITEMS_PER_ORDER = 2;
+	private static final int ROWS = ORDERS * (1 + ITEMS_PER_ORDER);
+
+	@Param({"h2"})
+	public String profile;
+
+	private ConfigurableApplicationContext context;
+	private OrderRepository orderRepository;
+	private OrderBatchWriter orderBatchWriter;
+	private TransactionTemplate transaction;
+
+	private List<Order> orders;
+
+	@Setup(Level.Trial)
+	public void start() {
+		context = new SpringApplicationBuilder(StoreApplication.class)
+				.profiles(profile)
+				.properties("server.port=0", "spring.jpa.hibernate.ddl-auto=create-drop", "logging.level.root=WARN")
+				.run();
+		orderRepository = context.getBean(OrderRepository.class);
+		orderBatchWriter = context.getBean(OrderBatchWriter.class);
+		transaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+	}
+
+	@TearDown(Level.Trial)
+	public void stop() {
+		context.close();
+	}
+
+	@Setup(Level.Invocation)
+	public void orders() {
+		orders = new ArrayList<>(ORDERS);
+		for (int o = 0; o < ORDERS; o++) {
+			final List<OrderItem> items = new ArrayList<>(ITEMS_PER_ORDER);
+			for (int i = 0; i < ITEMS_PER_ORDER; i++) {
+				items.add(OrderItem.builder().productId((long) i + 1).quantity(i + 1).build());
+			}
+			orders.add(Order.builder()
+					.status(OrderStatus.IN_PROGRESS)
+					.totalPrice(Money.of("10.00"))
+					.items(items)
+					.build());
+		}
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(ROWS)
+	public void singleInserts() {
+		for (Order order : orders) {
+			transaction.executeWithoutResult(status -> orderRepository.save(order));
+		}
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(ROWS)
+	public List<Order> batchInserts() {
+		return orderBatchWriter.persist(orders);
+	}
+}
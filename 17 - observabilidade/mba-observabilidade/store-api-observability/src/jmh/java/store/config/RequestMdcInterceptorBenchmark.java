@@ -0,0 +1,63 @@
+package store.config;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+/**
+ * Custo por requisição do RequestMdcInterceptor (preHandle + afterCompletion), com e sem o
+ * header x-trace-id. No pacote store.config porque a interceptor é package-private.
+ *
+ * mvn -P jmh verify -Djmh.include=RequestMdcInterceptorBenchmark
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RequestMdcInterceptorBenchmark {
+
+	private final RequestMdcInterceptor interceptor = new RequestMdcInterceptor();
+	private final MockHttpServletResponse response = new MockHttpServletResponse();
+
+	private MockHttpServletRequest plain;
+	private MockHttpServletRequest traced;
+
+	@Setup
+	public void requests() {
+		plain = new MockHttpServletRequest("GET", "/orders");
+		plain.addHeader("Host", "localhost:8080");
+
+		traced = new MockHttpServletRequest("GET", "/orders");
+		traced.addHeader("Host", "localhost:8080");
+		traced.addHeader(RequestMdcInterceptor.TRACE_ID_HEADER, "6f1c0a4e9b2d4c3f8a7e5d6c4b3a2910");
+	}
+
+	@Benchmark
+	public boolean withoutTraceHeader() {
+		return handle(plain);
+	}
+
+	@Benchmark
+	public boolean withTraceHeader() {
+		return handle(traced);
+	}
+
+	private boolean handle(final MockHttpServletRequest request) {
+		final boolean proceed = interceptor.preHandle(request, response, this);
+		interceptor.afterCompletion(request, response, this, null);
+		return proceed;
+	}
+}
@@ -0,0 +1,66 @@
+package store.order;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import store.Money;
+import store.product.Product;
+
+/**
+ * Precificação do newOrder (centavos em long por item) com os produtos já resolvidos.
+ * No pacote store.order porque OrderPricing é package-private. Comparação com BigDecimal em MoneyBenchmark.
+ *
+ * mvn -P jmh verify -Djmh.include=OrderPricingBenchmark -Djmh.args="-prof gc"
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OrderPricingBenchmark {
+
+	@Param({"2", "20"})
+	public int items;
+
+	private final OrderPricing pricing = new OrderPricing();
+
+	private Order order;
+	private Map<Long, Product> products;
+
+	@Setup
+	public void order() {
+		order = new Order();
+		products = new HashMap<>();
+		for (long id = 1; id <= items; id++) {
+			final Product product = Product.builder()
+					.id(id)
+					.title("product " + id)
+					.price(Money.ofCents(1990 + id * 100))
+					.build();
+			products.put(id, product);
+			order.getItems().add(OrderItem.builder()
+					.product(Product.builder().id(id).build())
+					.quantity((int) (id % 5) + 1)
+					.build());
+		}
+	}
+
+	@Benchmark
+	public Money price() {
+		pricing.price(order, products);
+		return order.getTotalPrice();
+	}
+}
@@ -0,0 +1,97 @@
+package store.order;
+
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import store.Money;
+import store.product.Product;
+
+/**
+ * Caminho de leitura do cache "products" do serviço de pedidos (contadores hit/miss, Caffeine e
+ * métricas), com o cache já aquecido: o custo medido é o que toda requisição de pedido paga.
+ * Executado com 4 threads para incluir a contenção entre requisições.
+ *
+ * mvn -P jmh verify -Djmh.include=ProductCacheBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(4)
+@Fork(1)
+public class ProductCacheBenchmark {
+
+	private static final int PRODUCTS = 1_000;
+
+	private OrderProductsCrossCut crossCut;
+	private List<Long> page;
+
+	@Setup
+	@SuppressWarnings("unchecked")
+	public void warmCache() {
+		final ProductsClient productsClient = mock(ProductsClient.class);
+		when(productsClient.fetchAll(anyCollection())).thenAnswer(invocation -> {
+			final List<Product> products = new ArrayList<>();
+			for (Long id : (Collection<Long>) invocation.getArgument(0)) {
+				products.add(Product.builder().id(id).title("product " + id).price(Money.of("10.00")).build());
+			}
+			return products;
+		});
+
+		final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+		final ProductLookupCoalescer coalescer = new ProductLookupCoalescer(productsClient, meterRegistry, Duration.ZERO, 50);
+		crossCut = new OrderProductsCrossCut(coalescer, productsClient, meterRegistry,
+				10_000, Duration.ofHours(1), Duration.ofHours(1), Duration.ofHours(1));
+
+		final List<Long> all = new ArrayList<>(PRODUCTS);
+		for (long id = 1; id <= PRODUCTS; id++) {
+			all.add(id);
+		}
+		for (int from = 0; from < PRODUCTS; from += 50) {
+			crossCut.findAllById(all.subList(from, from + 50));
+		}
+		page = List.copyOf(all.subList(0, 50));
+	}
+
+	@Benchmark
+	public Product findById(final Cursor cursor) {
+		return crossCut.findById(cursor.next());
+	}
+
+	@Benchmark
+	public List<Product> findAllById() {
+		return crossCut.findAllById(page);
+	}
+
+	// ids percorridos em sequência, um cursor por thread
+	@State(Scope.Thread)
+	public static class Cursor {
+
+		private long id;
+
+		Long next() {
+			id = id % PRODUCTS + 1;
+			return id;
+		}
+	}
+}
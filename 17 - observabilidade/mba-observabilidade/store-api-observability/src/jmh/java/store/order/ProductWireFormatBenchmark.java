@@ -0,0 +1,118 @@
+package store.order;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.hateoas.CollectionModel;
+import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.mediatype.MessageResolver;
+import org.springframework.hateoas.mediatype.hal.CurieProvider;
+import org.springframework.hateoas.mediatype.hal.Jackson2HalModule;
+import org.springframework.hateoas.server.core.DefaultLinkRelationProvider;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import store.Money;
+import store.product.Product;
+import store.product.ProductModelAssembler;
+
+/**
+ * Resposta de GET /products?ids= com 50 produtos, como o serviço de pedidos a recebe: em
+ * application/hal+json (com os links de cada produto) e em Smile (só os produtos). Mede a
+ * serialização no serviço de produtos e o parse no de pedidos; o tamanho de cada corpo é
+ * impresso no setup.
+ *
+ * mvn -P jmh verify -Djmh.include=ProductWireFormatBenchmark -Djmh.args="-prof gc"
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProductWireFormatBenchmark {
+
+	private final ObjectMapper halMapper = halMapper();
+	private final ObjectMapper smileMapper = new ObjectMapper(new SmileFactory())
+			.disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+
+	private List<Product> products;
+	private CollectionModel<EntityModel<Product>> halPage;
+	private byte[] halBytes;
+	private byte[] smileBytes;
+
+	@Setup
+	public void products() throws IOException {
+		products = new ArrayList<>(50);
+		for (long id = 1; id <= 50; id++) {
+			products.add(Product.builder()
+					.id(id)
+					.category("smartphones")
+					.title("product " + id)
+					.description("description of product " + id)
+					.price(Money.ofCents(4990 + id))
+					.rating(4.5f)
+					.brand("brand")
+					.build());
+		}
+
+		final MockHttpServletRequest request = new MockHttpServletRequest("GET", "/products");
+		request.setServerPort(8080);
+		RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+		try {
+			halPage = new ProductModelAssembler().toCollectionModel(products);
+		} finally {
+			RequestContextHolder.resetRequestAttributes();
+		}
+
+		halBytes = halMapper.writeValueAsBytes(halPage);
+		smileBytes = smileMapper.writeValueAsBytes(products);
+		System.out.printf("%npayload: hal+json %d bytes, smile %d bytes%n", halBytes.length, smileBytes.length);
+	}
+
+	@Benchmark
+	public byte[] writeHalJson() throws IOException {
+		return halMapper.writeValueAsBytes(halPage);
+	}
+
+	@Benchmark
+	public byte[] writeSmile() throws IOException {
+		return smileMapper.writeValueAsBytes(products);
+	}
+
+	// o cliente HAL percorre o documento inteiro, inclusive os links que depois descarta
+	@Benchmark
+	public List<Product> readHalJson() throws IOException {
+		return halMapper.readValue(halBytes, ProductsResponse.class).products();
+	}
+
+	@Benchmark
+	public Product[] readSmile() throws IOException {
+		return smileMapper.readValue(smileBytes, Product[].class);
+	}
+
+	private static ObjectMapper halMapper() {
+		final ObjectMapper mapper = new ObjectMapper()
+				.registerModule(new Jackson2HalModule())
+				// como no ObjectMapper do Spring Boot, que o RestTemplate usa
+				.disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+		mapper.setHandlerInstantiator(new Jackson2HalModule.HalHandlerInstantiator(
+				new DefaultLinkRelationProvider(), CurieProvider.NONE, MessageResolver.DEFAULTS_ONLY));
+		return mapper;
+	}
+}
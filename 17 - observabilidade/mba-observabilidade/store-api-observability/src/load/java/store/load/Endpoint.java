@@ -0,0 +1,23 @@
+package store.load;
+
+/**
+ * Endpoints exercised by the load generator, the same ones loader.py used to call.
+ */
+enum Endpoint {
+
+	CREATE("POST /orders"),
+	LIST("GET /orders"),
+	ONE("GET /orders/{id}"),
+	CANCEL("DELETE /orders/{id}/cancel"),
+	COMPLETE("PUT /orders/{id}/complete");
+
+	final String label;
+
+	Endpoint(final String label) {
+		this.label = label;
+	}
+
+	boolean needsOrder() {
+		return this != CREATE && this != LIST;
+	}
+}
@@ -0,0 +1,54 @@
+package store.load;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+/**
+ * Latencies and outcomes of one endpoint. Two histograms are kept, in microseconds:
+ * <ul>
+ *     <li>{@code latency}: from the moment the request was supposed to be sent, per the arrival
+ *     rate, to the response. Time spent waiting behind slow responses is counted, which corrects
+ *     coordinated omission;</li>
+ *     <li>{@code serviceTime}: from the moment it was actually sent, the number a naive client reports.</li>
+ * </ul>
+ */
+final class EndpointStats {
+
+	final Endpoint endpoint;
+
+	final Histogram latency = new ConcurrentHistogram(3);
+	final Histogram serviceTime = new ConcurrentHistogram(3);
+
+	final LongAdder success = new LongAdder();
+	final LongAdder clientErrors = new LongAdder();
+	final LongAdder serverErrors = new LongAdder();
+	final LongAdder failures = new LongAdder();
+
+	EndpointStats(final Endpoint endpoint) {
+		this.endpoint = endpoint;
+	}
+
+	void record(final long intendedStart, final long sentAt, final long end, final int status) {
+		if (status >= 500) {
+			serverErrors.increment();
+		} else if (status >= 400) {
+			clientErrors.increment();
+		} else {
+			success.increment();
+		}
+		latencies(intendedStart, sentAt, end);
+	}
+
+	void failed(final long intendedStart, final long sentAt, final long end) {
+		failures.increment();
+		latencies(intendedStart, sentAt, end);
+	}
+
+	private void latencies(final long intendedStart, final long sentAt, final long end) {
+		latency.recordValue(TimeUnit.NANOSECONDS.toMicros(end - intendedStart));
+		serviceTime.recordValue(TimeUnit.NANOSECONDS.toMicros(end - sentAt));
+	}
+}
@@ -0,0 +1,291 @@
+package store.load;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import org.HdrHistogram.Histogram;
+
+/**
+ * Load generator for the order endpoints, replacing loader.py. Requests follow {@link OrderMix}
+ * and are scheduled at a fixed total rate, in one of two models:
+ * <ul>
+ *     <li>open: requests are sent asynchronously at the scheduled time whether or not earlier
+ *     ones have completed (bounded by {@code --max-in-flight}), like independent users;</li>
+ *     <li>closed: {@code --users} users, each sending its next request only after the previous
+ *     response, paced to share the total rate. A slow response delays that user's next requests.</li>
+ * </ul>
+ * In both models latency is measured from the scheduled send time, so the percentiles are
+ * corrected for coordinated omission; the service time from the actual send is reported for
+ * comparison. Requests scheduled during the warmup are not recorded.
+ *
+ * <pre>
+ * usage: LoadGenerator [--base-url http://localhost:8080] [--model open|closed] [--rate 100]
+ *                      [--users 50] [--max-in-flight 1000] [--warmup 10] [--duration 60]
+ *                      [--seed-orders 100] [--hgrm-dir target/load]
+ * </pre>
+ */
+public final class LoadGenerator {
+
+	private final Options options;
+	private final HttpClient client;
+	private final OrderMix mix;
+	private final Map<Endpoint, EndpointStats> stats = new EnumMap<>(Endpoint.class);
+
+	private long measureFrom;
+
+	private LoadGenerator(final Options options) {
+		this.options = options;
+		this.client = HttpClient.newBuilder()
+				.version(HttpClient.Version.HTTP_1_1)
+				.connectTimeout(Duration.ofSeconds(5))
+				.build();
+		this.mix = new OrderMix(options.baseUrl());
+		for (Endpoint endpoint : Endpoint.values()) {
+			stats.put(endpoint, new EndpointStats(endpoint));
+		}
+	}
+
+	public static void main(final String[] args) throws Exception {
+		final Options options = Options.parse(args);
+		final LoadGenerator generator = new LoadGenerator(options);
+
+		generator.seed();
+		generator.run();
+		generator.report(System.out);
+		if (options.hgrmDir() != null) {
+			generator.writeHistograms(Path.of(options.hgrmDir()));
+		}
+	}
+
+	// pedidos iniciais, fora da medição, para que leituras, cancelamentos e conclusões tenham alvo
+	private void seed() throws IOException, InterruptedException {
+		for (int i = 0; i < options.seedOrders(); i++) {
+			final HttpResponse<Void> response = client.send(mix.request(Endpoint.CREATE), HttpResponse.BodyHandlers.discarding());
+			if (response.statusCode() != 201) {
+				throw new IllegalStateException("could not seed orders: POST /orders returned " + response.statusCode());
+			}
+			mix.completed(Endpoint.CREATE, response);
+		}
+	}
+
+	private void run() throws InterruptedException {
+		final long start = System.nanoTime();
+		measureFrom = start + TimeUnit.SECONDS.toNanos(options.warmupSeconds());
+		final long end = measureFrom + TimeUnit.SECONDS.toNanos(options.durationSeconds());
+
+		if (options.closed()) {
+			closed(start, end);
+		} else {
+			open(start, end);
+		}
+	}
+
+	private void open(final long start, final long end) throws InterruptedException {
+		final double interval = 1e9 / options.rate();
+		final Semaphore inFlight = new Semaphore(options.maxInFlight());
+
+		for (long i = 0; ; i++) {
+			final long intendedStart = start + (long) (i * interval);
+			if (intendedStart >= end) {
+				break;
+			}
+			sleepUntil(intendedStart);
+
+			// com o limite atingido o envio atrasa, mas a latência continua contada do horário planejado
+			inFlight.acquire();
+			final Endpoint endpoint = mix.next();
+			final HttpRequest request = mix.request(endpoint);
+			final long sentAt = System.nanoTime();
+			client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+					.whenComplete((response, error) -> {
+						try {
+							completed(endpoint, intendedStart, sentAt, response, error);
+						} finally {
+							inFlight.release();
+						}
+					});
+		}
+		// espera as respostas pendentes
+		inFlight.acquire(options.maxInFlight());
+	}
+
+	private void closed(final long start, final long end) throws InterruptedException {
+		final int users = options.users();
+		final long pace = (long) (users * 1e9 / options.rate());
+		final CountDownLatch done = new CountDownLatch(users);
+
+		for (int u = 0; u < users; u++) {
+			// usuários defasados dentro do ciclo para não enviarem todos no mesmo instante
+			final long firstStart = start + pace * u / users;
+			final Thread user = new Thread(() -> {
+				try {
+					for (long intendedStart = firstStart; intendedStart < end; intendedStart += pace) {
+						sleepUntil(intendedStart);
+						send(intendedStart);
+					}
+				} finally {
+					done.countDown();
+				}
+			}, "load-user-" + u);
+			user.setDaemon(true);
+			user.start();
+		}
+		done.await();
+	}
+
+	private void send(final long intendedStart) {
+		final Endpoint endpoint = mix.next();
+		final HttpRequest request = mix.request(endpoint);
+		final long sentAt = System.nanoTime();
+		try {
+			completed(endpoint, intendedStart, sentAt, client.send(request, HttpResponse.BodyHandlers.discarding()), null);
+		} catch (IOException e) {
+			completed(endpoint, intendedStart, sentAt, null, e);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private void completed(
+			final Endpoint endpoint,
+			final long intendedStart,
+			final long sentAt,
+			final HttpResponse<?> response,
+			final Throwable error) {
+		final long end = System.nanoTime();
+		if (response != null) {
+			mix.completed(endpoint, response);
+		}
+		if (intendedStart < measureFrom) {
+			return;
+		}
+		final EndpointStats endpointStats = stats.get(endpoint);
+		if (error != null) {
+			endpointStats.failed(intendedStart, sentAt, end);
+		} else {
+			endpointStats.record(intendedStart, sentAt, end, response.statusCode());
+		}
+	}
+
+	private void report(final PrintStream out) {
+		out.printf(Locale.ROOT, "model=%s rate=%.1f/s%s warmup=%ds duration=%ds%n",
+				options.closed() ? "closed" : "open", options.rate(),
+				options.closed() ? " users=" + options.users() : " max-in-flight=" + options.maxInFlight(),
+				options.warmupSeconds(), options.durationSeconds());
+		out.println("latencies in ms, measured from the scheduled send time (coordinated omission corrected);"
+				+ " 'svc p99' is the p99 from the actual send time");
+		out.printf(Locale.ROOT, "%-28s %9s %9s %7s %7s %7s %9s %9s %9s %9s %9s %9s %9s%n",
+				"endpoint", "requests", "req/s", "4xx", "5xx", "failed",
+				"p50", "p90", "p99", "p99.9", "max", "svc p99", "svc max");
+
+		final Histogram totalLatency = new Histogram(3);
+		final Histogram totalServiceTime = new Histogram(3);
+		long clientErrors = 0;
+		long serverErrors = 0;
+		long failures = 0;
+		for (EndpointStats endpointStats : stats.values()) {
+			row(out, endpointStats.endpoint.label, endpointStats.latency, endpointStats.serviceTime,
+					endpointStats.clientErrors.sum(), endpointStats.serverErrors.sum(), endpointStats.failures.sum());
+			totalLatency.add(endpointStats.latency);
+			totalServiceTime.add(endpointStats.serviceTime);
+			clientErrors += endpointStats.clientErrors.sum();
+			serverErrors += endpointStats.serverErrors.sum();
+			failures += endpointStats.failures.sum();
+		}
+		row(out, "total", totalLatency, totalServiceTime, clientErrors, serverErrors, failures);
+	}
+
+	private void row(
+			final PrintStream out,
+			final String label,
+			final Histogram latency,
+			final Histogram serviceTime,
+			final long clientErrors,
+			final long serverErrors,
+			final long failures) {
+		out.printf(Locale.ROOT, "%-28s %9d %9.1f %7d %7d %7d %9.2f %9.2f %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+				label, latency.getTotalCount(), latency.getTotalCount() / (double) options.durationSeconds(),
+				clientErrors, serverErrors, failures,
+				millis(latency.getValueAtPercentile(50)), millis(latency.getValueAtPercentile(90)),
+				millis(latency.getValueAtPercentile(99)), millis(latency.getValueAtPercentile(99.9)),
+				millis(latency.getMaxValue()),
+				millis(serviceTime.getValueAtPercentile(99)), millis(serviceTime.getMaxValue()));
+	}
+
+	// distribuição completa por endpoint, no formato do HdrHistogram plotter
+	private void writeHistograms(final Path dir) throws IOException {
+		Files.createDirectories(dir);
+		for (EndpointStats endpointStats : stats.values()) {
+			final Path file = dir.resolve(endpointStats.endpoint.name().toLowerCase(Locale.ROOT) + ".hgrm");
+			try (PrintStream out = new PrintStream(file.toFile())) {
+				endpointStats.latency.outputPercentileDistribution(out, 1000.0);
+			}
+		}
+	}
+
+	private static double millis(final long micros) {
+		return micros / 1000.0;
+	}
+
+	private static void sleepUntil(final long deadline) {
+		long remaining;
+		while ((remaining = deadline - System.nanoTime()) > 0) {
+			LockSupport.parkNanos(remaining);
+		}
+	}
+
+	private record Options(
+			String baseUrl,
+			boolean closed,
+			double rate,
+			int users,
+			int maxInFlight,
+			int warmupSeconds,
+			int durationSeconds,
+			int seedOrders,
+			String hgrmDir) {
+
+		static Options parse(final String[] args) {
+			final Map<String, String> values = new HashMap<>();
+			for (int i = 0; i < args.length; i++) {
+				if (!args[i].startsWith("--") || i + 1 == args.length) {
+					throw new IllegalArgumentException("expected --option value, got: " + args[i]);
+				}
+				values.put(args[i].substring(2), args[++i]);
+			}
+
+			final String model = values.getOrDefault("model", "open");
+			if (!model.equals("open") && !model.equals("closed")) {
+				throw new IllegalArgumentException("--model must be open or closed: " + model);
+			}
+			final Options options = new Options(
+					values.getOrDefault("base-url", "http://localhost:8080"),
+					model.equals("closed"),
+					Double.parseDouble(values.getOrDefault("rate", "100")),
+					Integer.parseInt(values.getOrDefault("users", "50")),
+					Integer.parseInt(values.getOrDefault("max-in-flight", "1000")),
+					Integer.parseInt(values.getOrDefault("warmup", "10")),
+					Integer.parseInt(values.getOrDefault("duration", "60")),
+					Integer.parseInt(values.getOrDefault("seed-orders", "100")),
+					values.get("hgrm-dir"));
+			if (options.rate() <= 0 || options.users() <= 0 || options.maxInFlight() <= 0 || options.durationSeconds() <= 0) {
+				throw new IllegalArgumentException("--rate, --users, --max-in-flight and --duration must be positive");
+			}
+			return options;
+		}
+	}
+}
@@ -0,0 +1,82 @@
+package store.load;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * The request mix of loader.py: the five order endpoints with the same weight, orders with
+ * products 1 and 2 (seeded by the h2 profile). Unlike loader.py, reads, cancels and completes
+ * target orders that exist: ids are taken from the Location header of the orders created
+ * during the run.
+ */
+final class OrderMix {
+
+	private static final Endpoint[] ENDPOINTS = Endpoint.values();
+
+	// últimos pedidos criados; cancel/complete de um pedido já finalizado responde 405, como no loader.py
+	private static final int KNOWN_ORDERS = 4096;
+
+	private static final Duration TIMEOUT = Duration.ofSeconds(30);
+
+	private final String baseUrl;
+	private final AtomicLongArray orders = new AtomicLongArray(KNOWN_ORDERS);
+	private final AtomicLong created = new AtomicLong();
+
+	OrderMix(final String baseUrl) {
+		this.baseUrl = baseUrl;
+	}
+
+	Endpoint next() {
+		final Endpoint endpoint = ENDPOINTS[ThreadLocalRandom.current().nextInt(ENDPOINTS.length)];
+		return endpoint.needsOrder() && created.get() == 0 ? Endpoint.CREATE : endpoint;
+	}
+
+	HttpRequest request(final Endpoint endpoint) {
+		return switch (endpoint) {
+			case CREATE -> builder("/orders")
+					.header("Content-Type", "application/json")
+					.POST(HttpRequest.BodyPublishers.ofString(newOrder()))
+					.build();
+			case LIST -> builder("/orders").GET().build();
+			case ONE -> builder("/orders/" + knownOrder()).GET().build();
+			case CANCEL -> builder("/orders/" + knownOrder() + "/cancel").DELETE().build();
+			case COMPLETE -> builder("/orders/" + knownOrder() + "/complete")
+					.PUT(HttpRequest.BodyPublishers.noBody())
+					.build();
+		};
+	}
+
+	void completed(final Endpoint endpoint, final HttpResponse<?> response) {
+		if (endpoint == Endpoint.CREATE && response.statusCode() == 201) {
+			response.headers().firstValue("Location").ifPresent(this::created);
+		}
+	}
+
+	private void created(final String location) {
+		final long id = Long.parseLong(location.substring(location.lastIndexOf('/') + 1));
+		orders.set((int) (created.getAndIncrement() % KNOWN_ORDERS), id);
+	}
+
+	private long knownOrder() {
+		final long count = Math.min(created.get(), KNOWN_ORDERS);
+		return orders.get(ThreadLocalRandom.current().nextInt((int) count));
+	}
+
+	private HttpRequest.Builder builder(final String path) {
+		return HttpRequest.newBuilder(URI.create(baseUrl + path))
+				.timeout(TIMEOUT)
+				.header("x-trace-id", UUID.randomUUID().toString());
+	}
+
+	private static String newOrder() {
+		final ThreadLocalRandom random = ThreadLocalRandom.current();
+		return "{\"items\":[{\"product\":{\"id\":1},\"quantity\":" + random.nextInt(1, 10)
+				+ "},{\"product\":{\"id\":2},\"quantity\":" + random.nextInt(1, 10) + "}]}";
+	}
+}
@@ -0,0 +1,145 @@
+package store;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.fasterxml.jackson.databind.exc.InvalidFormatException;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+/**
+ * An amount of money held as a {@code long} of cents. Arithmetic is overflow-checked and throws
+ * {@link ArithmeticException}, as does converting a {@link BigDecimal} with more than two decimal
+ * places. In JSON it is a plain number with two decimal places ({@code 1999.99}), as the
+ * {@code BigDecimal} fields it replaces were; in the database it is mapped by {@link MoneyConverter}.
+ */
+@JsonSerialize(using = Money.MoneySerializer.class)
+@JsonDeserialize(using = Money.MoneyDeserializer.class)
+public final class Money implements Comparable<Money> {
+
+    public static final Money ZERO = new Money(0);
+
+    private static final int SCALE = 2;
+    private static final int CENTS_PER_UNIT = 100;
+
+    private final long cents;
+
+    private Money(final long cents) {
+        this.cents = cents;
+    }
+
+    public static Money ofCents(final long cents) {
+        return cents == 0 ? ZERO : new Money(cents);
+    }
+
+    public static Money of(final BigDecimal amount) {
+        return ofCents(amount.movePointRight(SCALE).longValueExact());
+    }
+
+    public static Money of(final String amount) {
+        return of(new BigDecimal(amount));
+    }
+
+    public long cents() {
+        return cents;
+    }
+
+    public Money plus(final Money other) {
+        return ofCents(Math.addExact(cents, other.cents));
+    }
+
+    public Money times(final int quantity) {
+        return ofCents(Math.multiplyExact(cents, quantity));
+    }
+
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(cents, SCALE);
+    }
+
+    public double doubleValue() {
+        return cents / (double) CENTS_PER_UNIT;
+    }
+
+    @Override
+    public int compareTo(final Money other) {
+        return Long.compare(cents, other.cents);
+    }
+
+    @Override
+    public boolean equals(final Object other) {
+        return other instanceof Money money && money.cents == cents;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(cents);
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder text = new StringBuilder(24);
+        if (cents < 0) {
+            text.append('-');
+        }
+        // divisão e resto antes do abs: Math.abs(Long.MIN_VALUE) continua negativo
+        final long units = Math.abs(cents / CENTS_PER_UNIT);
+        final int fraction = (int) Math.abs(cents % CENTS_PER_UNIT);
+        text.append(units).append('.');
+        if (fraction < 10) {
+            text.append('0');
+        }
+        return text.append(fraction).toString();
+    }
+
+    static final class MoneySerializer extends StdSerializer<Money> {
+
+        MoneySerializer() {
+            super(Money.class);
+        }
+
+        @Override
+        public void serialize(final Money value, final JsonGenerator generator, final SerializerProvider provider) throws IOException {
+            // formatos binários (Smile, CBOR) não aceitam o número como texto
+            if (generator.canWriteFormattedNumbers()) {
+                generator.writeNumber(value.toString());
+            } else {
+                generator.writeNumber(value.toBigDecimal());
+            }
+        }
+    }
+
+    static final class MoneyDeserializer extends StdDeserializer<Money> {
+
+        MoneyDeserializer() {
+            super(Money.class);
+        }
+
+        @Override
+        public Money deserialize(final JsonParser parser, final DeserializationContext context) throws IOException {
+            final JsonToken token = parser.currentToken();
+            try {
+                if (token == JsonToken.VALUE_NUMBER_INT) {
+                    return ofCents(Math.multiplyExact(parser.getLongValue(), CENTS_PER_UNIT));
+                }
+                if (token == JsonToken.VALUE_NUMBER_FLOAT) {
+                    return of(parser.getDecimalValue());
+                }
+                if (token == JsonToken.VALUE_STRING) {
+                    return of(parser.getText().trim());
+                }
+            } catch (ArithmeticException | NumberFormatException e) {
+                throw InvalidFormatException.from(parser,
+                        "money amounts must fit in a long of cents and have at most 2 decimal places",
+                        parser.getText(), Money.class);
+            }
+            return (Money) context.handleUnexpectedToken(Money.class, parser);
+        }
+    }
+}
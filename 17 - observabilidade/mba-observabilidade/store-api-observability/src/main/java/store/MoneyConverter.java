@@ -0,0 +1,24 @@
+package store;
+
+import java.math.BigDecimal;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+/**
+ * Maps {@link Money} to the {@code numeric(38,2)} columns previously written from {@code BigDecimal}
+ * fields, so existing schemas and data are read unchanged.
+ */
+@Converter
+public class MoneyConverter implements AttributeConverter<Money, BigDecimal> {
+
+    @Override
+    public BigDecimal convertToDatabaseColumn(final Money money) {
+        return money == null ? null : money.toBigDecimal();
+    }
+
+    @Override
+    public Money convertToEntityAttribute(final BigDecimal amount) {
+        return amount == null ? null : Money.of(amount);
+    }
+}
@@ -15,7 +15,6 @@ import store.order.OrderStatus;
 import store.product.Product;
 import store.product.ProductRepository;
 
-import java.math.BigDecimal;
 import java.util.List;
 
 
@@ -47,7 +46,7 @@ class StoreApplicationStartUp {
 
             var p1 = productRepository.save(Product.builder()
                     .title("Apple MacBook Pro 14 Inch Space Grey")
-                    .price(BigDecimal.valueOf(1999.99))
+                    .price(Money.of("1999.99"))
                     .description("The MacBook Pro 14 Inch in Space Grey is a powerful and sleek laptop, " +
                             "featuring Apple's M1 Pro chip for exceptional performance and a stunning " +
                             "Retina display.")
@@ -57,7 +56,7 @@ class StoreApplicationStartUp {
                     .build());
             var p2 = productRepository.save(Product.builder()
                     .title("Sports Sneakers Off White Red")
-                    .price(BigDecimal.valueOf(109.99))
+                    .price(Money.of("109.99"))
                     .description("Another variant of the Sports Sneakers in Off White Red, featuring a unique design. " +
                             "These sneakers offer style and comfort for casual occasions.")
                     .brand("Off White")
@@ -71,13 +70,13 @@ class StoreApplicationStartUp {
             var order1 = Order.builder()
                     .items(List.of(item1, item2))
                     .totalPrice(Utils.sum(
-                            p1.getPrice().multiply(BigDecimal.valueOf(item1.getQuantity())),
-                            p2.getPrice().multiply(BigDecimal.valueOf(item2.getQuantity()))
+                            p1.getPrice().times(item1.getQuantity()),
+                            p2.getPrice().times(item2.getQuantity())
                     ))
                     .status(OrderStatus.IN_PROGRESS)
                     .build();
             orderRepository.save(order1);
-            orderRepository.findAll().forEach(order -> log.info("Order " + order));
+            orderRepository.findAllWithItemsBy().forEach(order -> log.info("Order " + order));
 
         };
     }
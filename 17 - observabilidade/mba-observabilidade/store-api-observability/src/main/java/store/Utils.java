@@ -1,7 +1,6 @@
 package store;
 
 import javax.swing.text.MaskFormatter;
-import java.math.BigDecimal;
 import java.text.ParseException;
 import java.time.LocalDate;
 import java.util.Objects;
@@ -28,15 +27,15 @@ public final class Utils {
         return formatter.valueToString(id);
     }
 
-    public static BigDecimal sum(BigDecimal... amounts) {
-        BigDecimal total = BigDecimal.ZERO;
+    public static Money sum(Money... amounts) {
         if (Objects.isNull(amounts))
-            return total;
+            return Money.ZERO;
 
-        for (BigDecimal amount : amounts) {
-            total = total.add(amount);
+        long total = 0;
+        for (Money amount : amounts) {
+            total = Math.addExact(total, amount.cents());
         }
 
-        return total;
+        return Money.ofCents(total);
     }
 }
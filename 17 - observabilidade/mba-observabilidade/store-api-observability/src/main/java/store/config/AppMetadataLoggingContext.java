@@ -0,0 +1,31 @@
+package store.config;
+
+import ch.qos.logback.classic.LoggerContext;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.info.BuildProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Static application metadata (name, version, build date), resolved once at startup and stored as
+ * properties of the logback context instead of being copied into the MDC on every request.
+ * Patterns and appenders reference them with {@code %property{appName}}.
+ */
+@Slf4j
+@Component
+class AppMetadataLoggingContext {
+
+    static final String APP_NAME = "appName";
+    static final String APP_VERSION = "appVersion";
+    static final String APP_BUILD_DATE = "appBuildDate";
+
+    AppMetadataLoggingContext(final BuildProperties buildProperties) {
+        if (LoggerFactory.getILoggerFactory() instanceof LoggerContext context) {
+            context.putProperty(APP_NAME, buildProperties.getName());
+            context.putProperty(APP_VERSION, buildProperties.getVersion());
+            context.putProperty(APP_BUILD_DATE, String.valueOf(buildProperties.getTime()));
+        }
+        log.info("logging context: {} {} built at {}",
+                buildProperties.getName(), buildProperties.getVersion(), buildProperties.getTime());
+    }
+}
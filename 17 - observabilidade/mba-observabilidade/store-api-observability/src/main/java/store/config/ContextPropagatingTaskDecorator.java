@@ -0,0 +1,47 @@
+package store.config;
+
+import java.util.Map;
+
+import io.micrometer.context.ContextSnapshot;
+import io.micrometer.context.ContextSnapshotFactory;
+import org.slf4j.MDC;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.stereotype.Component;
+
+/**
+ * Carries the context of the submitting thread into tasks run on application executors: the MDC
+ * and every registered {@code ThreadLocalAccessor}, notably the current Micrometer observation,
+ * so spans and log lines of the task belong to the request that submitted it.
+ * <p>
+ * Picked up by Spring Boot for {@code applicationTaskExecutor} ({@code @Async}, async MVC requests
+ * such as the streaming exports) and used by {@link FanOutExecutor}. The worker thread's previous
+ * MDC is restored afterwards, which also covers tasks run on the caller thread (CallerRunsPolicy).
+ */
+@Component
+public class ContextPropagatingTaskDecorator implements TaskDecorator {
+
+    private final ContextSnapshotFactory contextSnapshotFactory = ContextSnapshotFactory.builder().build();
+
+    @Override
+    public Runnable decorate(final Runnable runnable) {
+        final ContextSnapshot snapshot = contextSnapshotFactory.captureAll();
+        final Map<String, String> mdc = MDC.getCopyOfContextMap();
+        return () -> {
+            final Map<String, String> previous = MDC.getCopyOfContextMap();
+            try (ContextSnapshot.Scope scope = snapshot.setThreadLocals()) {
+                setMdc(mdc);
+                runnable.run();
+            } finally {
+                setMdc(previous);
+            }
+        };
+    }
+
+    private static void setMdc(final Map<String, String> mdc) {
+        if (mdc == null) {
+            MDC.clear();
+        } else {
+            MDC.setContextMap(mdc);
+        }
+    }
+}
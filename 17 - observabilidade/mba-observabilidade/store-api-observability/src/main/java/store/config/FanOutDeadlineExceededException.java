@@ -0,0 +1,10 @@
+package store.config;
+
+import java.time.Duration;
+
+public class FanOutDeadlineExceededException extends RuntimeException {
+
+	FanOutDeadlineExceededException(Duration deadline) {
+		super("Calls to dependent services did not finish within " + deadline.toMillis() + "ms");
+	}
+}
@@ -0,0 +1,167 @@
+package store.config;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.support.ExecutorServiceAdapter;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * Runs the blocking cross-service lookups of a single request concurrently, on a dedicated,
+ * bounded executor instead of the JVM-wide common ForkJoinPool.
+ * <ul>
+ *     <li>each call uses at most {@code app.fanout.max-concurrency-per-request} lanes, all of them on
+ *     the executor while the calling thread waits;</li>
+ *     <li>the whole call must finish within {@code app.fanout.deadline}, counted from its start;</li>
+ *     <li>when the executor is saturated the call runs on the lanes it got, or fails right away with
+ *     {@link FanOutRejectedException} if it got none; it never runs on the calling thread;</li>
+ *     <li>MDC and the current observation (trace) are restored on the worker threads.</li>
+ * </ul>
+ */
+@Slf4j
+@Component
+public class FanOutExecutor {
+
+    static final String EXECUTOR_NAME = "fanout";
+
+    private final ExecutorService executor;
+    private final ThreadPoolExecutor platformExecutor;
+    private final int maxConcurrencyPerRequest;
+    private final long deadlineNanos;
+    private final ContextPropagatingTaskDecorator contextPropagation;
+
+    final Counter counterPrazoExcedido;
+    final Counter counterRejeitadas;
+
+    public FanOutExecutor(
+            MeterRegistry meterRegistry,
+            ContextPropagatingTaskDecorator contextPropagation,
+            @Value("${app.fanout.virtual-threads:false}") boolean virtualThreads,
+            @Value("${app.fanout.max-threads:32}") int maxThreads,
+            @Value("${app.fanout.queue-capacity:256}") int queueCapacity,
+            @Value("${app.fanout.max-concurrency-per-request:4}") int maxConcurrencyPerRequest,
+            @Value("${app.fanout.deadline:3s}") Duration deadline) {
+
+        final ExecutorService delegate;
+        if (virtualThreads) {
+            final SimpleAsyncTaskExecutor taskExecutor = new SimpleAsyncTaskExecutor(EXECUTOR_NAME + "-");
+            taskExecutor.setVirtualThreads(true);
+            taskExecutor.setConcurrencyLimit(maxThreads);
+            this.platformExecutor = null;
+            delegate = new ExecutorServiceAdapter(taskExecutor);
+        } else {
+            // fila cheia: a tarefa é rejeitada; na thread da requisição ela escaparia do prazo
+            this.platformExecutor = new ThreadPoolExecutor(maxThreads, maxThreads,
+                    60, TimeUnit.SECONDS,
+                    new ArrayBlockingQueue<>(queueCapacity),
+                    new CustomizableThreadFactory(EXECUTOR_NAME + "-"),
+                    new ThreadPoolExecutor.AbortPolicy());
+            this.platformExecutor.allowCoreThreadTimeOut(true);
+            delegate = platformExecutor;
+        }
+
+        this.contextPropagation = contextPropagation;
+        this.executor = ExecutorServiceMetrics.monitor(meterRegistry, delegate, EXECUTOR_NAME);
+        this.maxConcurrencyPerRequest = Math.max(1, maxConcurrencyPerRequest);
+        this.deadlineNanos = deadline.toNanos();
+
+        this.counterPrazoExcedido = Counter.builder("app_custom_fanout_deadline_exceeded")
+                .description("chamadas paralelas a outros serviços que excederam o prazo da requisição")
+                .register(meterRegistry);
+
+        this.counterRejeitadas = Counter.builder("app_custom_fanout_rejected")
+                .description("chamadas paralelas a outros serviços recusadas com o executor saturado")
+                .register(meterRegistry);
+
+        log.info("fan-out executor using {} threads (max {}), {} lanes per request, deadline {}",
+                virtualThreads ? "virtual" : "platform", maxThreads, this.maxConcurrencyPerRequest, deadline);
+    }
+
+    public <T, R> List<R> invokeAll(final List<T> inputs, final Function<T, R> task) {
+        if (inputs.isEmpty()) {
+            return List.of();
+        }
+
+        final long deadline = System.nanoTime() + deadlineNanos;
+        final Object[] results = new Object[inputs.size()];
+        final AtomicInteger next = new AtomicInteger();
+        final AtomicBoolean cancelled = new AtomicBoolean();
+
+        final Runnable lane = () -> {
+            int i;
+            while (!cancelled.get() && (i = next.getAndIncrement()) < inputs.size()) {
+                results[i] = task.apply(inputs.get(i));
+            }
+        };
+
+        // nenhuma lane na thread da requisição: uma chamada lenta nela escaparia do prazo
+        final Runnable workerLane = contextPropagation.decorate(lane);
+        final int lanes = Math.min(maxConcurrencyPerRequest, inputs.size());
+        final CompletableFuture<?>[] workers = new CompletableFuture<?>[lanes];
+        int started = 0;
+        try {
+            for (; started < lanes; started++) {
+                workers[started] = CompletableFuture.runAsync(workerLane, executor);
+            }
+        } catch (RejectedExecutionException e) {
+            // as lanes dividem as entradas: com ao menos uma iniciada a chamada segue com menos paralelismo
+            if (started == 0) {
+                counterRejeitadas.increment();
+                throw new FanOutRejectedException(e);
+            }
+        }
+
+        try {
+            CompletableFuture.allOf(Arrays.copyOf(workers, started))
+                    .get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            cancelled.set(true);
+            counterPrazoExcedido.increment();
+            throw new FanOutDeadlineExceededException(Duration.ofNanos(deadlineNanos));
+        } catch (ExecutionException e) {
+            cancelled.set(true);
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            cancelled.set(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        } catch (RuntimeException e) {
+            cancelled.set(true);
+            throw e;
+        }
+
+        @SuppressWarnings("unchecked")
+        final List<R> list = (List<R>) Arrays.asList(results);
+        return list;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (platformExecutor != null) {
+            platformExecutor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package store.config;
+
+public class FanOutRejectedException extends RuntimeException {
+
+	FanOutRejectedException(Throwable cause) {
+		super("Too many concurrent calls to dependent services, try again later", cause);
+	}
+}
@@ -0,0 +1,48 @@
+package store.config;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import io.micrometer.core.instrument.Timer;
+import org.apache.hc.client5.http.HttpRoute;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.io.ConnectionEndpoint;
+import org.apache.hc.client5.http.io.LeaseRequest;
+import org.apache.hc.core5.util.Timeout;
+
+/**
+ * Connection pool that records how long callers wait to lease a connection, which is the
+ * first thing to grow when the pool is too small for the traffic.
+ */
+class InstrumentedConnectionManager extends PoolingHttpClientConnectionManager {
+
+    private final Timer leaseTimer;
+
+    InstrumentedConnectionManager(final Timer leaseTimer) {
+        this.leaseTimer = leaseTimer;
+    }
+
+    @Override
+    public LeaseRequest lease(final String id, final HttpRoute route, final Timeout requestTimeout, final Object state) {
+        final LeaseRequest delegate = super.lease(id, route, requestTimeout, state);
+        return new LeaseRequest() {
+
+            @Override
+            public ConnectionEndpoint get(final Timeout timeout)
+                    throws InterruptedException, ExecutionException, TimeoutException {
+                final long start = System.nanoTime();
+                try {
+                    return delegate.get(timeout);
+                } finally {
+                    leaseTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                }
+            }
+
+            @Override
+            public boolean cancel() {
+                return delegate.cancel();
+            }
+        };
+    }
+}
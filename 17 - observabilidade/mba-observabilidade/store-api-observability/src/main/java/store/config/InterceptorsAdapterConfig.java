@@ -10,10 +10,12 @@ import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 class InterceptorsAdapterConfig implements WebMvcConfigurer {
 
     private final RequestMdcInterceptor requestMdcInterceptor;
+    private final RequestDebugInterceptor requestDebugInterceptor;
 
     @Override
     public void addInterceptors(final InterceptorRegistry registry) {
         registry.addInterceptor(requestMdcInterceptor);
+        registry.addInterceptor(requestDebugInterceptor);
         WebMvcConfigurer.super.addInterceptors(registry);
     }
 }
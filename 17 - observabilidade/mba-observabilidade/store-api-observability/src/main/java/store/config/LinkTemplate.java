@@ -0,0 +1,89 @@
+package store.config;
+
+import java.util.function.LongFunction;
+
+import org.springframework.hateoas.Link;
+import org.springframework.hateoas.LinkRelation;
+import org.springframework.hateoas.server.mvc.WebMvcLinkBuilder;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+/**
+ * A controller link resolved once, at startup, with {@code linkTo(methodOn(...))} and afterwards
+ * expanded by string concatenation: base URI of the current request (resolved once per request)
+ * + path prefix + id + path suffix. Produces the same hrefs as {@code linkTo(methodOn(...))}
+ * without creating an invocation proxy and resolving the request URI for every link.
+ * <p>
+ * Templates must be created outside of a request, e.g. as fields of the model assemblers.
+ */
+public final class LinkTemplate {
+
+    private static final long ID_PLACEHOLDER = Long.MIN_VALUE;
+    private static final String BASE_URI_ATTRIBUTE = LinkTemplate.class.getName() + ".BASE_URI";
+
+    private final String prefix;
+    private final String suffix;
+
+    private LinkTemplate(final String prefix, final String suffix) {
+        this.prefix = prefix;
+        this.suffix = suffix;
+    }
+
+    /**
+     * Template for a mapping with a single id path variable, e.g.
+     * {@code LinkTemplate.withId(id -> methodOn(OrderController.class).one(id))}.
+     */
+    public static LinkTemplate withId(final LongFunction<Object> invocation) {
+        final String path = path(invocation.apply(ID_PLACEHOLDER));
+        final String placeholder = Long.toString(ID_PLACEHOLDER);
+        final int at = path.indexOf(placeholder);
+        if (at < 0) {
+            throw new IllegalArgumentException("Link does not contain the id: " + path);
+        }
+        return new LinkTemplate(path.substring(0, at), path.substring(at + placeholder.length()));
+    }
+
+    /**
+     * Template for a mapping without variables, e.g.
+     * {@code LinkTemplate.of(methodOn(OrderController.class).all(0, 100))}.
+     */
+    public static LinkTemplate of(final Object invocation) {
+        return new LinkTemplate(path(invocation), null);
+    }
+
+    public Link toLink(final long id, final LinkRelation relation) {
+        return Link.of(baseUri() + prefix + id + suffix, relation);
+    }
+
+    public Link toLink(final long id, final String relation) {
+        return toLink(id, LinkRelation.of(relation));
+    }
+
+    public Link toLink(final LinkRelation relation) {
+        return Link.of(baseUri() + prefix, relation);
+    }
+
+    public Link toLink(final String relation) {
+        return toLink(LinkRelation.of(relation));
+    }
+
+    private static String path(final Object invocation) {
+        final String href = WebMvcLinkBuilder.linkTo(invocation).toUri().toString();
+        final String base = baseUri();
+        return href.startsWith(base) ? href.substring(base.length()) : href;
+    }
+
+    private static String baseUri() {
+        final RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return "";
+        }
+        String base = (String) attributes.getAttribute(BASE_URI_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (base == null) {
+            base = ServletUriComponentsBuilder.fromCurrentServletMapping().build().toUriString();
+            attributes.setAttribute(BASE_URI_ATTRIBUTE, base, RequestAttributes.SCOPE_REQUEST);
+        }
+        return base;
+    }
+}
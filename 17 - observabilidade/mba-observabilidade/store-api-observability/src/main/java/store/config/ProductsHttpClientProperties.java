@@ -0,0 +1,23 @@
+package store.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "api.products.http")
+public record ProductsHttpClientProperties(
+        @DefaultValue("500ms") Duration connectTimeout,
+        @DefaultValue("2s") Duration readTimeout,
+        @DefaultValue("30s") Duration keepAlive,
+        @DefaultValue("false") boolean http2,
+        @DefaultValue Pool pool) {
+
+    public record Pool(
+            @DefaultValue("200") int maxTotal,
+            @DefaultValue("50") int maxPerRoute,
+            @DefaultValue("500ms") Duration leaseTimeout,
+            @DefaultValue("30s") Duration idleEviction,
+            @DefaultValue("5m") Duration timeToLive) {
+    }
+}
@@ -0,0 +1,27 @@
+package store.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "api.products.resilience")
+public record ProductsResilienceProperties(
+        @DefaultValue Bulkhead bulkhead,
+        @DefaultValue CircuitBreaker circuitBreaker) {
+
+    public record Bulkhead(
+            @DefaultValue("40") int maxConcurrentCalls,
+            @DefaultValue("50ms") Duration maxWait) {
+    }
+
+    public record CircuitBreaker(
+            @DefaultValue("50") int slidingWindowSize,
+            @DefaultValue("20") int minimumCalls,
+            @DefaultValue("50") float failureRateThreshold,
+            @DefaultValue("1s") Duration slowCallThreshold,
+            @DefaultValue("50") float slowCallRateThreshold,
+            @DefaultValue("10s") Duration waitInOpenState,
+            @DefaultValue("5") int halfOpenCalls) {
+    }
+}
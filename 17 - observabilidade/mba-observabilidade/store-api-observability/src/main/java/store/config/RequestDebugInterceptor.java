@@ -0,0 +1,63 @@
+package store.config;
+
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.Tracer;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import store.logging.RequestDebugSwitch;
+
+/**
+ * Flags requests for DEBUG logging (see {@code RequestDebugTurboFilter}): requests carrying the
+ * debug header, or whose trace id falls in the debug sample.
+ */
+@Component
+class RequestDebugInterceptor implements AsyncHandlerInterceptor {
+
+    static final String MDC_KEY = "debug";
+
+    private final RequestDebugSwitch requestDebugSwitch;
+    private final ObjectProvider<Tracer> tracer;
+
+    RequestDebugInterceptor(final RequestDebugSwitch requestDebugSwitch, final ObjectProvider<Tracer> tracer) {
+        this.requestDebugSwitch = requestDebugSwitch;
+        this.tracer = tracer;
+    }
+
+    @Override
+    public boolean preHandle(
+            final HttpServletRequest request,
+            final HttpServletResponse response,
+            final Object handler) {
+        if (requestDebugSwitch.isDebugRequest(request.getHeader(requestDebugSwitch.getHeader()), traceId())) {
+            MDC.put(MDC_KEY, "true");
+        }
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(
+            final HttpServletRequest request,
+            final HttpServletResponse response,
+            final Object handler) {
+        MDC.remove(MDC_KEY);
+    }
+
+    @Override
+    public void afterCompletion(
+            final HttpServletRequest request,
+            final HttpServletResponse response,
+            final Object handler,
+            final Exception ex) {
+        MDC.remove(MDC_KEY);
+    }
+
+    private String traceId() {
+        final Tracer current = tracer.getIfAvailable();
+        final Span span = current == null ? null : current.currentSpan();
+        return span == null ? null : span.context().traceId();
+    }
+}
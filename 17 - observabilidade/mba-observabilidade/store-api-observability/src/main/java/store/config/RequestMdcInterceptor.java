@@ -2,30 +2,64 @@ package store.config;
 
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.slf4j.MDC;
-import org.springframework.boot.info.BuildProperties;
 import org.springframework.stereotype.Component;
-import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
 
+/**
+ * Per-request MDC entries. Static app metadata lives in the logging context
+ * ({@link AppMetadataLoggingContext}); the entries set here are removed when the request completes,
+ * or leaves the thread for async processing, so they never leak to the next request on the same
+ * pooled thread.
+ */
 @Slf4j
 @Component
-@RequiredArgsConstructor
-class RequestMdcInterceptor implements HandlerInterceptor {
+class RequestMdcInterceptor implements AsyncHandlerInterceptor {
 
-    private final BuildProperties buildProperties;
+    static final String TRACE_ID = "traceId";
+    static final String HOST = "host";
+    static final String TRACE_ID_HEADER = "x-trace-id";
+
+    // atributo da requisição: a interceptor só remove do MDC o traceId que ela mesma colocou,
+    // o traceId do tracing (Micrometer) é gerenciado pelo escopo do span
+    private static final String OWNS_TRACE_ID = RequestMdcInterceptor.class.getName() + ".OWNS_TRACE_ID";
 
     @Override
     public boolean preHandle(
             final HttpServletRequest request,
             final HttpServletResponse response,
-            final Object handler) throws Exception {
-        MDC.put("appName", buildProperties.getName());
-        MDC.put("appVersion", buildProperties.getVersion());
-        MDC.put("appBuildDate", buildProperties.getTime().toString());
-        MDC.put("traceId", request.getHeader("x-trace-id"));
-        MDC.put("host", request.getHeader("Host"));
+            final Object handler) {
+        final String traceId = request.getHeader(TRACE_ID_HEADER);
+        if (traceId != null) {
+            MDC.put(TRACE_ID, traceId);
+            request.setAttribute(OWNS_TRACE_ID, Boolean.TRUE);
+        }
+        MDC.put(HOST, request.getHeader("Host"));
         return true;
     }
+
+    @Override
+    public void afterConcurrentHandlingStarted(
+            final HttpServletRequest request,
+            final HttpServletResponse response,
+            final Object handler) {
+        clear(request);
+    }
+
+    @Override
+    public void afterCompletion(
+            final HttpServletRequest request,
+            final HttpServletResponse response,
+            final Object handler,
+            final Exception ex) {
+        clear(request);
+    }
+
+    private static void clear(final HttpServletRequest request) {
+        MDC.remove(HOST);
+        if (request.getAttribute(OWNS_TRACE_ID) != null) {
+            MDC.remove(TRACE_ID);
+        }
+    }
 }
@@ -1,15 +1,82 @@
 package store.config;
 
+import java.net.http.HttpClient;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
 import org.springframework.web.client.RestTemplate;
 
 @Configuration
+@EnableConfigurationProperties({ProductsHttpClientProperties.class, ProductsResilienceProperties.class})
 public class RestTemplateConfig {
 
     @Bean
-    RestTemplate restTemplate(RestTemplateBuilder builder) {
-        return builder.build();
+    RestTemplate restTemplate(RestTemplateBuilder builder, ClientHttpRequestFactory productsRequestFactory) {
+        return builder
+                .requestFactory(() -> productsRequestFactory)
+                .build();
+    }
+
+    @Bean
+    ClientHttpRequestFactory productsRequestFactory(
+            final ProductsHttpClientProperties properties,
+            final MeterRegistry meterRegistry) {
+
+        if (properties.http2()) {
+            // o HttpClient do JDK negocia HTTP/2 e mantém o próprio pool de conexões
+            final HttpClient httpClient = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_2)
+                    .connectTimeout(properties.connectTimeout())
+                    .build();
+            final JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(httpClient);
+            requestFactory.setReadTimeout(properties.readTimeout());
+            return requestFactory;
+        }
+
+        final ProductsHttpClientProperties.Pool pool = properties.pool();
+
+        final Timer leaseTimer = Timer.builder("app_custom_products_http_pool_lease")
+                .description("tempo de espera para obter uma conexão do pool de chamadas ao serviço de produtos")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+
+        final InstrumentedConnectionManager connectionManager = new InstrumentedConnectionManager(leaseTimer);
+        connectionManager.setMaxTotal(pool.maxTotal());
+        connectionManager.setDefaultMaxPerRoute(pool.maxPerRoute());
+        connectionManager.setDefaultConnectionConfig(ConnectionConfig.custom()
+                .setConnectTimeout(Timeout.ofMilliseconds(properties.connectTimeout().toMillis()))
+                .setSocketTimeout(Timeout.ofMilliseconds(properties.readTimeout().toMillis()))
+                .setTimeToLive(TimeValue.ofMilliseconds(pool.timeToLive().toMillis()))
+                .build());
+
+        // conexões disponíveis, em uso e pendentes
+        new PoolingHttpClientConnectionManagerMetricsBinder(connectionManager, "products").bindTo(meterRegistry);
+
+        final CloseableHttpClient httpClient = HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout(Timeout.ofMilliseconds(pool.leaseTimeout().toMillis()))
+                        .setResponseTimeout(Timeout.ofMilliseconds(properties.readTimeout().toMillis()))
+                        .setConnectionKeepAlive(TimeValue.ofMilliseconds(properties.keepAlive().toMillis()))
+                        .build())
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.ofMilliseconds(pool.idleEviction().toMillis()))
+                .build();
+
+        return new HttpComponentsClientHttpRequestFactory(httpClient);
     }
 }
@@ -7,9 +7,12 @@ import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 import store.customer.CustomerNotFoundException;
+import store.order.InvalidOrderBatchException;
+import store.order.InvalidOrderCursorException;
 import store.order.OrderItemProductNotFoundException;
 import store.order.OrderNotFoundException;
 import store.order.OrderWithInvalidItemsException;
+import store.order.ProductServiceUnavailableException;
 
 @Slf4j
 @RestControllerAdvice
@@ -52,4 +55,49 @@ class RootControlerAdvice {
 				.withProperties(e.getOrder());
 	}
 
+	@ExceptionHandler(InvalidOrderCursorException.class)
+	@ResponseStatus(HttpStatus.BAD_REQUEST)
+	Problem invalidOrderCursorHandler(final InvalidOrderCursorException e) {
+		log.error(e.getMessage(), e);
+		return Problem.create()
+				.withTitle("Invalid cursor")
+				.withDetail(e.getMessage());
+	}
+
+	@ExceptionHandler(InvalidOrderBatchException.class)
+	@ResponseStatus(HttpStatus.BAD_REQUEST)
+	Problem invalidOrderBatchHandler(final InvalidOrderBatchException e) {
+		log.error(e.getMessage(), e);
+		return Problem.create()
+				.withTitle("Invalid order batch")
+				.withDetail(e.getMessage());
+	}
+
+	@ExceptionHandler(FanOutDeadlineExceededException.class)
+	@ResponseStatus(HttpStatus.GATEWAY_TIMEOUT)
+	Problem fanOutDeadlineExceededHandler(final FanOutDeadlineExceededException e) {
+		log.error(e.getMessage(), e);
+		return Problem.create()
+				.withTitle("Dependency timeout")
+				.withDetail(e.getMessage());
+	}
+
+	@ExceptionHandler(FanOutRejectedException.class)
+	@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+	Problem fanOutRejectedHandler(final FanOutRejectedException e) {
+		log.error(e.getMessage(), e);
+		return Problem.create()
+				.withTitle("Service overloaded")
+				.withDetail(e.getMessage());
+	}
+
+	@ExceptionHandler(ProductServiceUnavailableException.class)
+	@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+	Problem productServiceUnavailableHandler(final ProductServiceUnavailableException e) {
+		log.error(e.getMessage(), e);
+		return Problem.create()
+				.withTitle("Product service unavailable")
+				.withDetail(e.getMessage());
+	}
+
 }
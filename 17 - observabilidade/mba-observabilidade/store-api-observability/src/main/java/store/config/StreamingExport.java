@@ -0,0 +1,73 @@
+package store.config;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+/**
+ * Writes the result of a JPA {@link Stream} straight to the response with Jackson's streaming
+ * generator. Entities are detached as soon as they are written, so memory stays constant no
+ * matter how many rows the query returns.
+ */
+@Component
+@RequiredArgsConstructor
+public class StreamingExport {
+
+    public static final MediaType APPLICATION_NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+    private final ObjectMapper objectMapper;
+    private final EntityManager entityManager;
+    private final PlatformTransactionManager transactionManager;
+
+    public <T> ResponseEntity<StreamingResponseBody> export(final String format, final Supplier<Stream<T>> query) {
+        final boolean array = "json".equalsIgnoreCase(format);
+        return ResponseEntity.ok()
+                .contentType(array ? MediaType.APPLICATION_JSON : APPLICATION_NDJSON)
+                .body(out -> write(out, query, array));
+    }
+
+    private <T> void write(final OutputStream out, final Supplier<Stream<T>> query, final boolean array) {
+        final TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(true);
+        transaction.executeWithoutResult(status -> {
+            try (Stream<T> stream = query.get()) {
+                final JsonGenerator generator = objectMapper.getFactory().createGenerator(out);
+                generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                generator.setRootValueSeparator(null);
+
+                if (array) {
+                    generator.writeStartArray();
+                }
+                final Iterator<T> rows = stream.iterator();
+                while (rows.hasNext()) {
+                    final T row = rows.next();
+                    generator.writeObject(row);
+                    if (!array) {
+                        generator.writeRaw('\n');
+                    }
+                    entityManager.detach(row);
+                }
+                if (array) {
+                    generator.writeEndArray();
+                }
+                generator.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+}
@@ -0,0 +1,92 @@
+package store.config;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Listens to the JFR {@code jdk.VirtualThreadPinned} event (Java 21+) and publishes how often and
+ * for how long virtual threads stay pinned to their carrier, e.g. inside the synchronized blocks
+ * of the JDBC driver. The {@code source} tag is the package of the first non-JDK frame.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.vthreads.pinning-monitor.enabled", havingValue = "true")
+class VirtualThreadPinningMonitor {
+
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+
+    private final MeterRegistry meterRegistry;
+    private final Duration threshold;
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+    private RecordingStream recordingStream;
+
+    VirtualThreadPinningMonitor(
+            MeterRegistry meterRegistry,
+            @Value("${app.vthreads.pinning-monitor.threshold:20ms}") Duration threshold) {
+        this.meterRegistry = meterRegistry;
+        this.threshold = threshold;
+    }
+
+    @PostConstruct
+    void start() {
+        if (Runtime.version().feature() < 21) {
+            log.info("virtual thread pinning monitor disabled: requires Java 21, running on {}", Runtime.version());
+            return;
+        }
+        recordingStream = new RecordingStream();
+        recordingStream.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+        recordingStream.onEvent(PINNED_EVENT, this::onPinned);
+        recordingStream.startAsync();
+        log.info("virtual thread pinning monitor started, threshold {}", threshold);
+    }
+
+    private void onPinned(final RecordedEvent event) {
+        final String source = source(event);
+        timers.computeIfAbsent(source, s -> Timer.builder("app_custom_vthreads_pinned")
+                        .description("tempo em que uma virtual thread ficou presa à carrier thread")
+                        .tag("source", s)
+                        .register(meterRegistry))
+                .record(event.getDuration());
+
+        if (log.isDebugEnabled() && event.getStackTrace() != null) {
+            log.debug("virtual thread pinned for {} at {}", event.getDuration(), event.getStackTrace().getFrames());
+        }
+    }
+
+    private static String source(final RecordedEvent event) {
+        if (event.getStackTrace() == null) {
+            return "unknown";
+        }
+        final List<RecordedFrame> frames = event.getStackTrace().getFrames();
+        for (RecordedFrame frame : frames) {
+            final String type = frame.getMethod().getType().getName();
+            if (type.startsWith("java.") || type.startsWith("jdk.") || type.startsWith("sun.")) {
+                continue;
+            }
+            final String[] parts = type.split("\\.");
+            return parts.length > 2 ? parts[0] + "." + parts[1] : type;
+        }
+        return "jdk";
+    }
+
+    @PreDestroy
+    void stop() {
+        if (recordingStream != null) {
+            recordingStream.close();
+        }
+    }
+}
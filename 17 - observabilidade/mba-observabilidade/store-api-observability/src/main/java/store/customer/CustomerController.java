@@ -7,16 +7,24 @@ import java.util.stream.Collectors;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.hateoas.CollectionModel;
 import org.springframework.hateoas.EntityModel;
 import org.springframework.hateoas.IanaLinkRelations;
+import org.springframework.hateoas.PagedModel;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import store.config.StreamingExport;
 
 @Slf4j
 @RestController
@@ -25,6 +33,10 @@ public class CustomerController {
 
 	private final CustomerRepository repository;
 	private final CustomerModelAssembler assembler;
+	private final StreamingExport streamingExport;
+
+	@Value("${app.customers.max-page-size:500}")
+	private int maxPageSize;
 
 	@GetMapping("/customers")
 	public CollectionModel<EntityModel<Customer>> all() {
@@ -34,6 +46,38 @@ public class CustomerController {
 		return CollectionModel.of(customers, linkTo(methodOn(CustomerController.class).all()).withSelfRel());
 	}
 
+	@GetMapping(value = "/customers", params = "page")
+	public PagedModel<EntityModel<Customer>> allPaged(
+			@RequestParam Integer page,
+			@RequestParam(defaultValue = "100") Integer size) {
+
+		Page<Customer> customers = repository.findAll(
+				PageRequest.of(Math.max(0, page), Math.max(1, Math.min(size, maxPageSize)), Sort.by("id")));
+
+		PagedModel<EntityModel<Customer>> customersModel = PagedModel.of(
+				customers.map(assembler::toModel).getContent(),
+				new PagedModel.PageMetadata(customers.getSize(), customers.getNumber(),
+						customers.getTotalElements(), customers.getTotalPages()),
+				linkTo(methodOn(CustomerController.class).allPaged(customers.getNumber(), customers.getSize())).withSelfRel());
+
+		if (customers.hasNext()) {
+			customersModel.add(linkTo(methodOn(CustomerController.class).allPaged(customers.getNumber() + 1, customers.getSize()))
+					.withRel(IanaLinkRelations.NEXT));
+		}
+		if (customers.hasPrevious()) {
+			customersModel.add(linkTo(methodOn(CustomerController.class).allPaged(customers.getNumber() - 1, customers.getSize()))
+					.withRel(IanaLinkRelations.PREV));
+		}
+
+		return customersModel;
+	}
+
+	// exportação completa em streaming: ndjson (padrão) ou json (array)
+	@GetMapping("/customers/export")
+	public ResponseEntity<StreamingResponseBody> export(@RequestParam(defaultValue = "ndjson") String format) {
+		return streamingExport.export(format, repository::streamAll);
+	}
+
 	@PostMapping("/customers")
 	public ResponseEntity<?> newCustomer(@RequestBody Customer customer) {
 		EntityModel<Customer> entityModel = assembler.toModel(repository.save(customer));
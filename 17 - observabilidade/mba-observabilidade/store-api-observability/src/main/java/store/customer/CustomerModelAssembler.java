@@ -3,18 +3,23 @@ package store.customer;
 import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.*;
 
 import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.IanaLinkRelations;
 import org.springframework.hateoas.server.RepresentationModelAssembler;
 import org.springframework.stereotype.Component;
+import store.config.LinkTemplate;
 
 @Component
 public class CustomerModelAssembler implements
 		RepresentationModelAssembler<Customer, EntityModel<Customer>> {
 
+	private final LinkTemplate oneLink = LinkTemplate.withId(id -> methodOn(CustomerController.class).one(id));
+	private final LinkTemplate allLink = LinkTemplate.of(methodOn(CustomerController.class).all());
+
 	@Override
 	public EntityModel<Customer> toModel(final Customer customer) {
 
 		return EntityModel.of(customer,
-				linkTo(methodOn(CustomerController.class).one(customer.getId())).withSelfRel(),
-				linkTo(methodOn(CustomerController.class).all()).withRel("customers"));
+				oneLink.toLink(customer.getId(), IanaLinkRelations.SELF),
+				allLink.toLink("customers"));
 	}
 }
@@ -1,7 +1,17 @@
 package store.customer;
 
+import java.util.stream.Stream;
+
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
 public interface CustomerRepository extends JpaRepository<Customer, Long> {
 
+	// leitura em streaming para exportação, buscando 500 linhas por vez do banco
+	@QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+	@Query("select c from Customer c order by c.id")
+	Stream<Customer> streamAll();
 }
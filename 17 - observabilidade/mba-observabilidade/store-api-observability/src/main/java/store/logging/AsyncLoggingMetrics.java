@@ -0,0 +1,69 @@
+package store.logging;
+
+import java.util.Iterator;
+import java.util.List;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * Publishes the state of every {@link RingBufferAsyncAppender} configured in logback: queue depth,
+ * dropped events per level and the latency of each batch delivered to the attached appenders.
+ */
+@Component
+class AsyncLoggingMetrics implements MeterBinder {
+
+    private static final List<Level> LEVELS = List.of(Level.DEBUG, Level.INFO, Level.WARN, Level.ERROR);
+
+    @Override
+    public void bindTo(final MeterRegistry meterRegistry) {
+        if (!(LoggerFactory.getILoggerFactory() instanceof LoggerContext context)) {
+            return;
+        }
+        for (Logger logger : context.getLoggerList()) {
+            final Iterator<Appender<ILoggingEvent>> appenders = logger.iteratorForAppenders();
+            while (appenders.hasNext()) {
+                if (appenders.next() instanceof RingBufferAsyncAppender appender) {
+                    bind(meterRegistry, appender);
+                }
+            }
+        }
+    }
+
+    private void bind(final MeterRegistry meterRegistry, final RingBufferAsyncAppender appender) {
+        final String name = appender.getName();
+
+        Gauge.builder("app_custom_log_queue_depth", appender, RingBufferAsyncAppender::queueDepth)
+                .description("eventos de log aguardando entrega aos appenders")
+                .tag("appender", name)
+                .register(meterRegistry);
+
+        Gauge.builder("app_custom_log_queue_capacity", appender, RingBufferAsyncAppender::queueCapacity)
+                .description("capacidade do buffer de eventos de log")
+                .tag("appender", name)
+                .register(meterRegistry);
+
+        for (Level level : LEVELS) {
+            FunctionCounter.builder("app_custom_log_dropped_events", appender, a -> a.dropped(level))
+                    .description("eventos de log descartados por falta de espaço no buffer")
+                    .tag("appender", name)
+                    .tag("level", level.toString())
+                    .register(meterRegistry);
+        }
+
+        appender.setFlushTimer(Timer.builder("app_custom_log_flush_latency")
+                .description("tempo de entrega de um lote de eventos de log aos appenders")
+                .tag("appender", name)
+                .register(meterRegistry));
+    }
+}
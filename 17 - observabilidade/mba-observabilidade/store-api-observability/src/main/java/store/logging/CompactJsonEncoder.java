@@ -0,0 +1,232 @@
+package store.logging;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.spi.IThrowableProxy;
+import ch.qos.logback.classic.spi.ThrowableProxyUtil;
+import ch.qos.logback.core.encoder.EncoderBase;
+
+/**
+ * JSON encoder for our fixed field set: {@code ts, level, logger, thread, traceId, host, app,
+ * version, msg} plus {@code caller} and {@code stack} when present. Events are written into a
+ * per-thread {@link JsonBuffer}; constant parts (field names, level, app and version, logger
+ * names, the timestamp up to the second) are escaped and encoded once and copied as bytes.
+ * <p>
+ * Caller data is only written for WARN and above, and only if it was captured on the logging
+ * thread ({@link RingBufferAsyncAppender#setCallerDataLevel}); the encoder never walks the stack.
+ */
+public class CompactJsonEncoder extends EncoderBase<ILoggingEvent> {
+
+    private static final int BUFFER_SIZE = 1024;
+    private static final int MAX_RETAINED_BUFFER_SIZE = 64 * 1024;
+    private static final DateTimeFormatter SECONDS = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.")
+            .withZone(ZoneOffset.UTC);
+
+    private static final byte[] TS = ascii("{\"ts\":\"");
+    private static final byte[] LEVEL = ascii("Z\",\"level\":\"");
+    private static final byte[] LOGGER = ascii("\",\"logger\":\"");
+    private static final byte[] THREAD = ascii("\",\"thread\":\"");
+    private static final byte[] TRACE_ID = ascii("\",\"traceId\":\"");
+    private static final byte[] HOST = ascii("\",\"host\":\"");
+    private static final byte[] MSG = ascii("\",\"msg\":\"");
+    private static final byte[] CALLER = ascii("\",\"caller\":\"");
+    private static final byte[] STACK = ascii("\",\"stack\":\"");
+    private static final byte[] END = ascii("\"}\n");
+
+    private static final ThreadLocal<PerThread> PER_THREAD = ThreadLocal.withInitial(PerThread::new);
+
+    private final Map<String, byte[]> loggerNames = new ConcurrentHashMap<>();
+
+    private String appName;
+    private String appVersion;
+    private byte[] appFields;
+
+    @Override
+    public void start() {
+        if (appVersion == null) {
+            appVersion = buildVersion();
+        }
+        final JsonBuffer buffer = new JsonBuffer(128);
+        buffer.write(ascii("\",\"app\":\""));
+        buffer.writeEscaped(appName == null ? "" : appName);
+        buffer.write(ascii("\",\"version\":\""));
+        buffer.writeEscaped(appVersion == null ? "" : appVersion);
+        appFields = buffer.toByteArray();
+        super.start();
+    }
+
+    @Override
+    public byte[] headerBytes() {
+        return null;
+    }
+
+    @Override
+    public byte[] footerBytes() {
+        return null;
+    }
+
+    @Override
+    public byte[] encode(final ILoggingEvent event) {
+        final PerThread local = PER_THREAD.get();
+        final JsonBuffer out = local.buffer;
+        out.reset();
+
+        out.write(TS);
+        local.writeTimestamp(event.getTimeStamp());
+        out.write(LEVEL);
+        out.write(level(event.getLevel()));
+        out.write(LOGGER);
+        out.write(loggerNames.computeIfAbsent(event.getLoggerName(), CompactJsonEncoder::escaped));
+        out.write(THREAD);
+        local.writeThreadName(event.getThreadName());
+
+        final Map<String, String> mdc = mdc(event);
+        out.write(TRACE_ID);
+        writeNullable(out, mdc.get("traceId"));
+        out.write(HOST);
+        writeNullable(out, mdc.get("host"));
+        out.write(appFields);
+
+        out.write(MSG);
+        writeNullable(out, event.getFormattedMessage());
+
+        if (event.getLevel().isGreaterOrEqual(Level.WARN) && event.hasCallerData()) {
+            final StackTraceElement[] callerData = event.getCallerData();
+            if (callerData.length > 0) {
+                final StackTraceElement caller = callerData[0];
+                out.write(CALLER);
+                out.writeEscaped(caller.getClassName());
+                out.write((byte) '.');
+                out.writeEscaped(caller.getMethodName());
+                out.write((byte) ':');
+                out.writeInt(caller.getLineNumber());
+            }
+        }
+
+        final IThrowableProxy throwable = event.getThrowableProxy();
+        if (throwable != null) {
+            out.write(STACK);
+            out.writeEscaped(ThrowableProxyUtil.asString(throwable));
+        }
+
+        out.write(END);
+        final byte[] encoded = out.toByteArray();
+        if (encoded.length > MAX_RETAINED_BUFFER_SIZE) {
+            local.buffer = new JsonBuffer(BUFFER_SIZE);
+        }
+        return encoded;
+    }
+
+    // sem MDC (contexto sem MDCAdapter, evento desserializado) os campos ficam vazios
+    private static Map<String, String> mdc(final ILoggingEvent event) {
+        final Map<String, String> mdc;
+        try {
+            mdc = event.getMDCPropertyMap();
+        } catch (NullPointerException e) {
+            return Map.of();
+        }
+        return mdc == null ? Map.of() : mdc;
+    }
+
+    private static void writeNullable(final JsonBuffer out, final String value) {
+        if (value != null) {
+            out.writeEscaped(value);
+        }
+    }
+
+    private static byte[] level(final Level level) {
+        return switch (level.toInt()) {
+            case Level.ERROR_INT -> Levels.ERROR;
+            case Level.WARN_INT -> Levels.WARN;
+            case Level.INFO_INT -> Levels.INFO;
+            case Level.DEBUG_INT -> Levels.DEBUG;
+            default -> Levels.TRACE;
+        };
+    }
+
+    private static byte[] escaped(final String value) {
+        final JsonBuffer buffer = new JsonBuffer(value.length() + 8);
+        buffer.writeEscaped(value);
+        return buffer.toByteArray();
+    }
+
+    private static byte[] ascii(final String value) {
+        return value.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    // versão gerada pelo goal build-info do spring-boot-maven-plugin
+    private String buildVersion() {
+        try (InputStream in = getClass().getResourceAsStream("/META-INF/build-info.properties")) {
+            if (in == null) {
+                return null;
+            }
+            final Properties properties = new Properties();
+            properties.load(in);
+            return properties.getProperty("build.version");
+        } catch (IOException e) {
+            addWarn("Could not read build-info.properties", e);
+            return null;
+        }
+    }
+
+    public void setAppName(final String appName) {
+        this.appName = appName;
+    }
+
+    public void setAppVersion(final String appVersion) {
+        this.appVersion = appVersion;
+    }
+
+    private static final class Levels {
+        static final byte[] ERROR = ascii("ERROR");
+        static final byte[] WARN = ascii("WARN");
+        static final byte[] INFO = ascii("INFO");
+        static final byte[] DEBUG = ascii("DEBUG");
+        static final byte[] TRACE = ascii("TRACE");
+    }
+
+    /**
+     * Buffer and caches of one logging thread: the timestamp prefix of the current second and the
+     * escaped name of the thread.
+     */
+    private static final class PerThread {
+
+        JsonBuffer buffer = new JsonBuffer(BUFFER_SIZE);
+
+        private long second = Long.MIN_VALUE;
+        private byte[] secondPrefix;
+        private String threadName;
+        private byte[] threadNameBytes;
+
+        void writeTimestamp(final long epochMillis) {
+            final long epochSecond = Math.floorDiv(epochMillis, 1000);
+            if (epochSecond != second) {
+                second = epochSecond;
+                secondPrefix = ascii(SECONDS.format(Instant.ofEpochSecond(epochSecond)));
+            }
+            buffer.write(secondPrefix);
+            final int millis = (int) Math.floorMod(epochMillis, 1000);
+            buffer.write((byte) ('0' + millis / 100));
+            buffer.write((byte) ('0' + millis / 10 % 10));
+            buffer.write((byte) ('0' + millis % 10));
+        }
+
+        void writeThreadName(final String name) {
+            if (name != threadName) {
+                threadName = name;
+                threadNameBytes = name == null ? new byte[0] : escaped(name);
+            }
+            buffer.write(threadNameBytes);
+        }
+    }
+}
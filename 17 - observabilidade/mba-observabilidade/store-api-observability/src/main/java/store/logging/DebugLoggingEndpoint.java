@@ -0,0 +1,50 @@
+package store.logging;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+/**
+ * {@code /actuator/debuglogging}: reads and changes the per-request debug logging at runtime, e.g.
+ * {@code POST {"traceSampleRate": 0.05}} or {@code POST {"enabled": false}}.
+ */
+@Component
+@Endpoint(id = "debuglogging")
+public class DebugLoggingEndpoint {
+
+    private final RequestDebugSwitch requestDebugSwitch;
+
+    public DebugLoggingEndpoint(final RequestDebugSwitch requestDebugSwitch) {
+        this.requestDebugSwitch = requestDebugSwitch;
+    }
+
+    @ReadOperation
+    public DebugLogging read() {
+        return new DebugLogging(
+                requestDebugSwitch.isEnabled(),
+                requestDebugSwitch.getHeader(),
+                requestDebugSwitch.getTraceSampleRate(),
+                requestDebugSwitch.getEventsPerSecond());
+    }
+
+    @WriteOperation
+    public DebugLogging write(@Nullable final Boolean enabled,
+                       @Nullable final Double traceSampleRate,
+                       @Nullable final Integer eventsPerSecond) {
+        if (enabled != null) {
+            requestDebugSwitch.setEnabled(enabled);
+        }
+        if (traceSampleRate != null) {
+            requestDebugSwitch.setTraceSampleRate(traceSampleRate);
+        }
+        if (eventsPerSecond != null) {
+            requestDebugSwitch.setEventsPerSecond(eventsPerSecond);
+        }
+        return read();
+    }
+
+    public record DebugLogging(boolean enabled, String header, double traceSampleRate, int eventsPerSecond) {
+    }
+}
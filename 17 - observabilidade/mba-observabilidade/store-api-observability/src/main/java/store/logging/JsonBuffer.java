@@ -0,0 +1,114 @@
+package store.logging;
+
+import java.util.Arrays;
+
+/**
+ * Growable byte buffer with the few JSON writes {@link CompactJsonEncoder} needs. Strings are
+ * escaped and UTF-8 encoded char by char, without intermediate {@code String} or {@code byte[]}.
+ */
+final class JsonBuffer {
+
+    private static final byte[] HEX = "0123456789abcdef".getBytes();
+
+    private byte[] bytes;
+    private int size;
+
+    JsonBuffer(final int initialCapacity) {
+        this.bytes = new byte[initialCapacity];
+    }
+
+    void reset() {
+        size = 0;
+    }
+
+    byte[] toByteArray() {
+        return Arrays.copyOf(bytes, size);
+    }
+
+    int size() {
+        return size;
+    }
+
+    void write(final byte b) {
+        ensure(1);
+        bytes[size++] = b;
+    }
+
+    void write(final byte[] source) {
+        ensure(source.length);
+        System.arraycopy(source, 0, bytes, size, source.length);
+        size += source.length;
+    }
+
+    void writeInt(final int value) {
+        if (value < 0) {
+            write((byte) '-');
+            writeInt(-value);
+            return;
+        }
+        if (value >= 10) {
+            writeInt(value / 10);
+        }
+        write((byte) ('0' + value % 10));
+    }
+
+    /**
+     * Writes {@code value} as the content of a JSON string (without the surrounding quotes).
+     */
+    void writeEscaped(final CharSequence value) {
+        final int length = value.length();
+        ensure(length);
+        for (int i = 0; i < length; i++) {
+            final char c = value.charAt(i);
+            if (c >= 0x20 && c < 0x80 && c != '"' && c != '\\') {
+                ensure(1);
+                bytes[size++] = (byte) c;
+            } else if (c < 0x80) {
+                writeEscapedAscii(c);
+            } else if (c < 0x800) {
+                ensure(2);
+                bytes[size++] = (byte) (0xc0 | c >> 6);
+                bytes[size++] = (byte) (0x80 | c & 0x3f);
+            } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(value.charAt(i + 1))) {
+                final int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                ensure(4);
+                bytes[size++] = (byte) (0xf0 | codePoint >> 18);
+                bytes[size++] = (byte) (0x80 | codePoint >> 12 & 0x3f);
+                bytes[size++] = (byte) (0x80 | codePoint >> 6 & 0x3f);
+                bytes[size++] = (byte) (0x80 | codePoint & 0x3f);
+            } else if (Character.isSurrogate(c)) {
+                write((byte) '?');
+            } else {
+                ensure(3);
+                bytes[size++] = (byte) (0xe0 | c >> 12);
+                bytes[size++] = (byte) (0x80 | c >> 6 & 0x3f);
+                bytes[size++] = (byte) (0x80 | c & 0x3f);
+            }
+        }
+    }
+
+    private void writeEscapedAscii(final char c) {
+        ensure(6);
+        bytes[size++] = '\\';
+        switch (c) {
+            case '"' -> bytes[size++] = '"';
+            case '\\' -> bytes[size++] = '\\';
+            case '\n' -> bytes[size++] = 'n';
+            case '\r' -> bytes[size++] = 'r';
+            case '\t' -> bytes[size++] = 't';
+            default -> {
+                bytes[size++] = 'u';
+                bytes[size++] = '0';
+                bytes[size++] = '0';
+                bytes[size++] = HEX[c >> 4];
+                bytes[size++] = HEX[c & 0xf];
+            }
+        }
+    }
+
+    private void ensure(final int extra) {
+        if (size + extra > bytes.length) {
+            bytes = Arrays.copyOf(bytes, Math.max(bytes.length << 1, size + extra));
+        }
+    }
+}
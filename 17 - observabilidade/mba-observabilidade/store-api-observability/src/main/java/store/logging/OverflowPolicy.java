@@ -0,0 +1,17 @@
+package store.logging;
+
+/**
+ * What {@link RingBufferAsyncAppender} does with an event of a given level when its ring buffer
+ * has no room for it.
+ */
+public enum OverflowPolicy {
+
+    /** Dropped once the free space falls below the discarding threshold, leaving room for more important levels. */
+    DROP_EARLY,
+
+    /** Dropped only when the buffer is completely full. */
+    DROP,
+
+    /** Never dropped: the logging thread waits for the buffer to drain. */
+    BLOCK
+}
@@ -0,0 +1,100 @@
+package store.logging;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Runtime state of per-request debug logging: which requests are flagged (debug header or a
+ * sampled trace id) and the settings of the {@link RequestDebugTurboFilter}s configured in
+ * logback. Changed at runtime through {@link DebugLoggingEndpoint}.
+ */
+@Slf4j
+@Component
+public class RequestDebugSwitch {
+
+    private final List<RequestDebugTurboFilter> filters = new ArrayList<>();
+
+    private final String header;
+    private volatile double traceSampleRate;
+
+    public RequestDebugSwitch(
+            MeterRegistry meterRegistry,
+            @Value("${app.logging.debug.header:X-Debug}") String header,
+            @Value("${app.logging.debug.trace-sample-rate:0.0}") double traceSampleRate,
+            @Value("${app.logging.debug.events-per-second:50}") int eventsPerSecond) {
+
+        this.header = header;
+        this.traceSampleRate = traceSampleRate;
+
+        if (LoggerFactory.getILoggerFactory() instanceof LoggerContext context) {
+            for (TurboFilter filter : context.getTurboFilterList()) {
+                if (filter instanceof RequestDebugTurboFilter debugFilter) {
+                    debugFilter.setEventsPerSecond(eventsPerSecond);
+                    filters.add(debugFilter);
+                }
+            }
+        }
+        if (filters.isEmpty()) {
+            log.warn("no RequestDebugTurboFilter configured in logback, per-request debug logging is disabled");
+        }
+
+        FunctionCounter.builder("app_custom_log_debug_rate_limited", this, s -> s.filters.stream()
+                        .mapToLong(RequestDebugTurboFilter::limited)
+                        .sum())
+                .description("eventos DEBUG de requisições em modo debug descartados pelo limite por logger")
+                .register(meterRegistry);
+    }
+
+    public String getHeader() {
+        return header;
+    }
+
+    public boolean isEnabled() {
+        return filters.stream().anyMatch(RequestDebugTurboFilter::isEnabled);
+    }
+
+    public void setEnabled(final boolean enabled) {
+        filters.forEach(filter -> filter.setEnabled(enabled));
+    }
+
+    public int getEventsPerSecond() {
+        return filters.isEmpty() ? 0 : filters.get(0).getEventsPerSecond();
+    }
+
+    public void setEventsPerSecond(final int eventsPerSecond) {
+        filters.forEach(filter -> filter.setEventsPerSecond(eventsPerSecond));
+    }
+
+    public double getTraceSampleRate() {
+        return traceSampleRate;
+    }
+
+    public void setTraceSampleRate(final double traceSampleRate) {
+        this.traceSampleRate = Math.max(0, Math.min(1, traceSampleRate));
+    }
+
+    /**
+     * Whether a request with this debug header value and trace id should log at DEBUG. The sample
+     * is a function of the trace id, so every service of a sampled trace logs at DEBUG.
+     */
+    public boolean isDebugRequest(final String headerValue, final String traceId) {
+        if (!isEnabled()) {
+            return false;
+        }
+        if (headerValue != null && !"false".equalsIgnoreCase(headerValue)) {
+            return true;
+        }
+        final double rate = traceSampleRate;
+        return rate > 0 && traceId != null
+                && Math.floorMod(traceId.hashCode(), 10_000) < rate * 10_000;
+    }
+}
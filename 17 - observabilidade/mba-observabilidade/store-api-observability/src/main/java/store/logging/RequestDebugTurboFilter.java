@@ -0,0 +1,93 @@
+package store.logging;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.MDC;
+import org.slf4j.Marker;
+
+/**
+ * Enables DEBUG for the application loggers ({@code loggerPrefix}) only on requests flagged for
+ * debugging, i.e. with the {@code mdcKey} MDC entry set by {@code RequestDebugInterceptor}. The
+ * loggers themselves stay at INFO, so unflagged requests never render DEBUG messages. Flagged
+ * DEBUG events are limited to {@code eventsPerSecond} per logger.
+ * <p>
+ * {@code enabled} and {@code eventsPerSecond} can be changed at runtime through
+ * {@link RequestDebugSwitch}.
+ */
+public class RequestDebugTurboFilter extends TurboFilter {
+
+    private final Map<String, Budget> budgets = new ConcurrentHashMap<>();
+    private final LongAdder limited = new LongAdder();
+
+    private String loggerPrefix = "store";
+    private String mdcKey = "debug";
+    private volatile boolean enabled = true;
+    private volatile int eventsPerSecond = 50;
+
+    @Override
+    public FilterReply decide(final Marker marker, final Logger logger, final Level level,
+                              final String format, final Object[] params, final Throwable t) {
+        if (level == null || level.toInt() > Level.DEBUG_INT || !enabled
+                || !logger.getName().startsWith(loggerPrefix) || MDC.get(mdcKey) == null) {
+            return FilterReply.NEUTRAL;
+        }
+        if (budgets.computeIfAbsent(logger.getName(), name -> new Budget()).tryAcquire(eventsPerSecond)) {
+            return FilterReply.ACCEPT;
+        }
+        limited.increment();
+        return FilterReply.DENY;
+    }
+
+    long limited() {
+        return limited.sum();
+    }
+
+    boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(final boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    int getEventsPerSecond() {
+        return eventsPerSecond;
+    }
+
+    public void setEventsPerSecond(final int eventsPerSecond) {
+        this.eventsPerSecond = eventsPerSecond;
+    }
+
+    public void setLoggerPrefix(final String loggerPrefix) {
+        this.loggerPrefix = loggerPrefix;
+    }
+
+    public void setMdcKey(final String mdcKey) {
+        this.mdcKey = mdcKey;
+    }
+
+    /**
+     * Fixed one-second window per logger.
+     */
+    private static final class Budget {
+
+        private final AtomicLong window = new AtomicLong();
+        private final AtomicLong used = new AtomicLong();
+
+        boolean tryAcquire(final int perSecond) {
+            final long second = System.currentTimeMillis() / 1000;
+            final long current = window.get();
+            if (second != current && window.compareAndSet(current, second)) {
+                used.set(0);
+            }
+            return used.incrementAndGet() <= perSecond;
+        }
+    }
+}
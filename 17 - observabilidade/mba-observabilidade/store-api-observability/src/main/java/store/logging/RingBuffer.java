@@ -0,0 +1,80 @@
+package store.logging;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bounded, lock-free multi-producer/single-consumer queue (Vyukov's sequenced ring buffer).
+ * Producers claim a slot with a CAS on the tail and publish it by advancing the slot sequence;
+ * the single consumer reads published slots in order and hands them back for the next lap.
+ */
+final class RingBuffer<E> {
+
+    private final Object[] slots;
+    private final AtomicLongArray sequences;
+    private final int mask;
+
+    private final AtomicLong tail = new AtomicLong();
+    private final AtomicLong head = new AtomicLong();
+
+    RingBuffer(final int requestedCapacity) {
+        final int capacity = Integer.highestOneBit(Math.max(2, requestedCapacity - 1) << 1);
+        this.slots = new Object[capacity];
+        this.sequences = new AtomicLongArray(capacity);
+        this.mask = capacity - 1;
+        for (int i = 0; i < capacity; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    /**
+     * @return false when the buffer is full
+     */
+    boolean offer(final E element) {
+        long position = tail.get();
+        while (true) {
+            final int index = (int) position & mask;
+            final long difference = sequences.get(index) - position;
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    slots[index] = element;
+                    sequences.lazySet(index, position + 1);
+                    return true;
+                }
+                position = tail.get();
+            } else if (difference < 0) {
+                return false;
+            } else {
+                position = tail.get();
+            }
+        }
+    }
+
+    /**
+     * Consumer side only.
+     *
+     * @return the next element, or null when nothing is published yet
+     */
+    @SuppressWarnings("unchecked")
+    E poll() {
+        final long position = head.get();
+        final int index = (int) position & mask;
+        if (sequences.get(index) != position + 1) {
+            return null;
+        }
+        final E element = (E) slots[index];
+        slots[index] = null;
+        sequences.lazySet(index, position + slots.length);
+        head.lazySet(position + 1);
+        return element;
+    }
+
+    int size() {
+        final long size = tail.get() - head.get();
+        return (int) Math.max(0, Math.min(size, slots.length));
+    }
+
+    int capacity() {
+        return slots.length;
+    }
+}
@@ -0,0 +1,263 @@
+package store.logging;
+
+import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.UnsynchronizedAppenderBase;
+import ch.qos.logback.core.spi.AppenderAttachable;
+import ch.qos.logback.core.spi.AppenderAttachableImpl;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Moves the work of the attached appenders (console, file, Elastic, Splunk) off the logging thread.
+ * Events go into a lock-free {@link RingBuffer} and a single worker thread delivers them in
+ * batches. When the buffer fills up each level follows its own {@link OverflowPolicy}; by default
+ * DEBUG and INFO are dropped first, WARN when the buffer is full and ERROR is never dropped,
+ * except when it is logged by the worker itself (e.g. an attached appender reporting its own
+ * failure): the worker cannot wait for room it is the only one able to make.
+ * <p>
+ * Queue depth, dropped events and batch flush latency are published by {@link AsyncLoggingMetrics}.
+ */
+public class RingBufferAsyncAppender extends UnsynchronizedAppenderBase<ILoggingEvent>
+        implements AppenderAttachable<ILoggingEvent> {
+
+    private static final int MAX_BATCH = 256;
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final long BLOCK_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+
+    private final AppenderAttachableImpl<ILoggingEvent> appenders = new AppenderAttachableImpl<>();
+    private final LongAdder[] dropped = {new LongAdder(), new LongAdder(), new LongAdder(), new LongAdder()};
+
+    private int capacity = 8192;
+    private int discardingThreshold = 20;
+    private int maxFlushTime = 1000;
+    private Level callerDataLevel = Level.OFF;
+    private OverflowPolicy debugPolicy = OverflowPolicy.DROP_EARLY;
+    private OverflowPolicy infoPolicy = OverflowPolicy.DROP_EARLY;
+    private OverflowPolicy warnPolicy = OverflowPolicy.DROP;
+    private OverflowPolicy errorPolicy = OverflowPolicy.BLOCK;
+
+    private RingBuffer<ILoggingEvent> buffer;
+    private int earlyDropSize;
+    private Thread worker;
+    private volatile boolean workerIdle;
+    private volatile Timer flushTimer;
+
+    @Override
+    public void start() {
+        if (isStarted()) {
+            return;
+        }
+        if (!appenders.iteratorForAppenders().hasNext()) {
+            addError("No appender attached to " + getName());
+            return;
+        }
+        buffer = new RingBuffer<>(capacity);
+        earlyDropSize = buffer.capacity() - buffer.capacity() * discardingThreshold / 100;
+        worker = new Thread(this::drain, "async-log-" + getName());
+        worker.setDaemon(true);
+        super.start();
+        worker.start();
+    }
+
+    @Override
+    public void stop() {
+        if (!isStarted()) {
+            return;
+        }
+        super.stop();
+        LockSupport.unpark(worker);
+        try {
+            worker.join(maxFlushTime);
+            if (worker.isAlive()) {
+                addWarn("Max flush time of " + maxFlushTime + "ms exceeded, " + buffer.size() + " events lost");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        appenders.detachAndStopAllAppenders();
+    }
+
+    @Override
+    protected void append(final ILoggingEvent event) {
+        final int level = levelIndex(event.getLevel());
+        final OverflowPolicy policy = policy(level);
+
+        if (policy == OverflowPolicy.DROP_EARLY && buffer.size() >= earlyDropSize) {
+            dropped[level].increment();
+            return;
+        }
+
+        event.prepareForDeferredProcessing();
+        if (event.getLevel().isGreaterOrEqual(callerDataLevel)) {
+            event.getCallerData();
+        }
+
+        while (!buffer.offer(event)) {
+            // o worker esperando por espaço no buffer esperaria por si mesmo: descarta
+            if (policy != OverflowPolicy.BLOCK || !isStarted() || Thread.currentThread() == worker) {
+                dropped[level].increment();
+                return;
+            }
+            wakeWorker();
+            LockSupport.parkNanos(BLOCK_PARK_NANOS);
+        }
+        wakeWorker();
+    }
+
+    private void wakeWorker() {
+        if (workerIdle) {
+            LockSupport.unpark(worker);
+        }
+    }
+
+    private void drain() {
+        while (isStarted()) {
+            if (flush() == 0) {
+                workerIdle = true;
+                if (buffer.size() == 0 && isStarted()) {
+                    LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+                }
+                workerIdle = false;
+            }
+        }
+        while (flush() > 0) {
+            // entrega o que ficou no buffer antes de encerrar
+        }
+    }
+
+    private int flush() {
+        final long start = System.nanoTime();
+        int delivered = 0;
+        ILoggingEvent event;
+        while (delivered < MAX_BATCH && (event = buffer.poll()) != null) {
+            try {
+                appenders.appendLoopOnAppenders(event);
+            } catch (RuntimeException e) {
+                addError("Failed to deliver event to attached appenders", e);
+            }
+            delivered++;
+        }
+        final Timer timer = flushTimer;
+        if (delivered > 0 && timer != null) {
+            timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+        return delivered;
+    }
+
+    private static int levelIndex(final Level level) {
+        return switch (level.toInt()) {
+            case Level.ERROR_INT -> 3;
+            case Level.WARN_INT -> 2;
+            case Level.INFO_INT -> 1;
+            default -> 0;
+        };
+    }
+
+    private OverflowPolicy policy(final int level) {
+        return switch (level) {
+            case 3 -> errorPolicy;
+            case 2 -> warnPolicy;
+            case 1 -> infoPolicy;
+            default -> debugPolicy;
+        };
+    }
+
+    // ------ métricas ----------------------------
+
+    int queueDepth() {
+        return buffer == null ? 0 : buffer.size();
+    }
+
+    int queueCapacity() {
+        return buffer == null ? capacity : buffer.capacity();
+    }
+
+    long dropped(final Level level) {
+        return dropped[levelIndex(level)].sum();
+    }
+
+    void setFlushTimer(final Timer flushTimer) {
+        this.flushTimer = flushTimer;
+    }
+
+    // ------ configuração (logback.xml) ----------
+
+    public void setCapacity(final int capacity) {
+        this.capacity = capacity;
+    }
+
+    public void setDiscardingThreshold(final int discardingThreshold) {
+        this.discardingThreshold = discardingThreshold;
+    }
+
+    public void setMaxFlushTime(final int maxFlushTime) {
+        this.maxFlushTime = maxFlushTime;
+    }
+
+    /**
+     * Events at or above this level get their caller data captured on the logging thread, where
+     * the stack still points at the caller; e.g. WARN for {@link CompactJsonEncoder}.
+     */
+    public void setCallerDataLevel(final String callerDataLevel) {
+        this.callerDataLevel = Level.toLevel(callerDataLevel, Level.OFF);
+    }
+
+    public void setDebugPolicy(final OverflowPolicy debugPolicy) {
+        this.debugPolicy = debugPolicy;
+    }
+
+    public void setInfoPolicy(final OverflowPolicy infoPolicy) {
+        this.infoPolicy = infoPolicy;
+    }
+
+    public void setWarnPolicy(final OverflowPolicy warnPolicy) {
+        this.warnPolicy = warnPolicy;
+    }
+
+    public void setErrorPolicy(final OverflowPolicy errorPolicy) {
+        this.errorPolicy = errorPolicy;
+    }
+
+    // ------ AppenderAttachable ------------------
+
+    @Override
+    public void addAppender(final Appender<ILoggingEvent> appender) {
+        appenders.addAppender(appender);
+    }
+
+    @Override
+    public Iterator<Appender<ILoggingEvent>> iteratorForAppenders() {
+        return appenders.iteratorForAppenders();
+    }
+
+    @Override
+    public Appender<ILoggingEvent> getAppender(final String name) {
+        return appenders.getAppender(name);
+    }
+
+    @Override
+    public boolean isAttached(final Appender<ILoggingEvent> appender) {
+        return appenders.isAttached(appender);
+    }
+
+    @Override
+    public void detachAndStopAllAppenders() {
+        appenders.detachAndStopAllAppenders();
+    }
+
+    @Override
+    public boolean detachAppender(final Appender<ILoggingEvent> appender) {
+        return appenders.detachAppender(appender);
+    }
+
+    @Override
+    public boolean detachAppender(final String name) {
+        return appenders.detachAppender(name);
+    }
+}
@@ -0,0 +1,8 @@
+package store.order;
+
+public class InvalidOrderBatchException extends RuntimeException {
+
+	InvalidOrderBatchException(String message) {
+		super(message);
+	}
+}
@@ -0,0 +1,8 @@
+package store.order;
+
+public class InvalidOrderCursorException extends RuntimeException {
+
+	InvalidOrderCursorException(String cursor) {
+		super("Invalid cursor: " + cursor);
+	}
+}
@@ -5,8 +5,10 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.BatchSize;
+import store.Money;
+import store.MoneyConverter;
 
-import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -18,18 +20,26 @@ import java.util.List;
 @AllArgsConstructor
 public class Order {
 
+	// ids de sequência com otimizador pooled (1 ida ao banco a cada 50 ids): com IDENTITY o
+	// Hibernate precisa do id gerado a cada insert e não consegue agrupar inserts em lote JDBC
 	@Id
-	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "orders_seq")
+	@SequenceGenerator(name = "orders_seq", sequenceName = "orders_seq", allocationSize = 50)
 	private long id;
 
 	private OrderStatus status;
 
-	private BigDecimal totalPrice;
+	@Convert(converter = MoneyConverter.class)
+	private Money totalPrice;
 
+	// itens carregados sob demanda, em lote: uma página de pedidos gera um único
+	// "where order_id in (...)" para até 100 pedidos, em vez de uma consulta por pedido.
+	// order_id not null: a chave estrangeira vai no próprio insert do item, sem update posterior
 	@OneToMany(orphanRemoval = true,
-			fetch = FetchType.EAGER,
+			fetch = FetchType.LAZY,
 			cascade = CascadeType.ALL,
 			targetEntity = OrderItem.class)
-	@JoinColumn(name = "order_id", referencedColumnName = "id")
+	@JoinColumn(name = "order_id", referencedColumnName = "id", nullable = false)
+	@BatchSize(size = 100)
 	private List<OrderItem> items = new ArrayList<>();
 }
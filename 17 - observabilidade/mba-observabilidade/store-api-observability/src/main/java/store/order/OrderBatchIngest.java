@@ -0,0 +1,73 @@
+package store.order;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.util.CollectionUtils;
+import store.product.Product;
+
+/**
+ * Ingests many orders at once: the products of all items are resolved with a single
+ * {@link OrderProductsResolver} call and the orders are priced before any transaction is opened;
+ * only the inserts run in one, in {@link OrderBatchWriter}, so no database connection is held
+ * while the product service is called.
+ */
+@Service
+public class OrderBatchIngest {
+
+	private final OrderProductsResolver orderProductsResolver;
+	private final OrderPricing orderPricing;
+	private final OrderBatchWriter orderBatchWriter;
+	private final int maxOrders;
+
+	final DistributionSummary summaryPedidosPorLote;
+
+	public OrderBatchIngest(
+			OrderProductsResolver orderProductsResolver,
+			OrderPricing orderPricing,
+			OrderBatchWriter orderBatchWriter,
+			MeterRegistry meterRegistry,
+			@Value("${app.orders.batch.max-size:5000}") int maxOrders) {
+
+		this.orderProductsResolver = orderProductsResolver;
+		this.orderPricing = orderPricing;
+		this.orderBatchWriter = orderBatchWriter;
+		this.maxOrders = maxOrders;
+
+		this.summaryPedidosPorLote = DistributionSummary.builder("app_custom_orders_batch_size")
+				.description("quantidade de pedidos recebidos por chamada de importação em lote")
+				.register(meterRegistry);
+	}
+
+	public List<Order> ingest(final List<Order> orders) {
+		if (CollectionUtils.isEmpty(orders)) {
+			throw new InvalidOrderBatchException("No orders informed");
+		}
+		if (orders.size() > maxOrders) {
+			throw new InvalidOrderBatchException("Batch of " + orders.size() + " orders exceeds the limit of " + maxOrders);
+		}
+		for (Order order : orders) {
+			if (CollectionUtils.isEmpty(order.getItems())) {
+				throw new OrderWithInvalidItemsException("Order items not informed correctly", order);
+			}
+		}
+		summaryPedidosPorLote.record(orders.size());
+
+		final Map<Long, Product> products = orderProductsResolver.resolve(orders.stream()
+				.map(Order::getItems)
+				.flatMap(Collection::stream)
+				.toList());
+
+		for (Order order : orders) {
+			order.setStatus(OrderStatus.IN_PROGRESS);
+			orderPricing.price(order, products);
+		}
+
+		return orderBatchWriter.persist(orders);
+	}
+}
@@ -0,0 +1,49 @@
+package store.order;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Persists already priced orders in one transaction, in chunks of {@code hibernate.jdbc.batch_size}
+ * flushed as JDBC batch inserts and then cleared from the persistence context. Kept apart from
+ * {@link OrderBatchIngest} so the transaction (and its connection) only covers the writes.
+ */
+@Slf4j
+@Component
+public class OrderBatchWriter {
+
+	private final EntityManager entityManager;
+	private final int flushSize;
+
+	public OrderBatchWriter(
+			EntityManager entityManager,
+			@Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}") int flushSize) {
+
+		this.entityManager = entityManager;
+		this.flushSize = Math.max(1, flushSize);
+	}
+
+	@Transactional
+	public List<Order> persist(final List<Order> orders) {
+		final List<Order> persisted = new ArrayList<>(orders.size());
+		for (Order order : orders) {
+			entityManager.persist(order);
+			persisted.add(order);
+			if (persisted.size() % flushSize == 0) {
+				entityManager.flush();
+				entityManager.clear();
+			}
+		}
+		entityManager.flush();
+		entityManager.clear();
+
+		log.debug("{} orders persisted in batches of {}", persisted.size(), flushSize);
+		return persisted;
+	}
+}
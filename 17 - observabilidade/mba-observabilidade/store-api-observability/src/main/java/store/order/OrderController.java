@@ -2,17 +2,17 @@ package store.order;
 
 import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.*;
 
-import java.math.BigDecimal;
 import java.util.Collection;
 import java.util.List;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.Map;
 
 import io.micrometer.core.instrument.Counter;
-import io.micrometer.core.instrument.Gauge;
 import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.hateoas.CollectionModel;
 import org.springframework.hateoas.EntityModel;
 import org.springframework.hateoas.MediaTypes;
@@ -32,32 +32,39 @@ public class OrderController {
 	private final OrderModelAssembler assembler;
 	private final OrderRepository orderRepository;
 	private final ProductRepository productRepository;
-	private final OrderProductsCrossCut orderProductsCrossCut;
+	private final OrderProductsResolver orderProductsResolver;
+	private final OrderPricing orderPricing;
+	private final OrderBatchIngest orderBatchIngest;
+	private final OrderMetrics metrics;
 	private final MeterRegistry meterRegistry;
+	private final int maxPageSize;
 
 	final Counter counterQuantidadeNovasSolicitacoes;
-	final AtomicInteger gaugeValueProdutosAdquiridos = new AtomicInteger();
 
     public OrderController(
 			OrderModelAssembler assembler,
 			OrderRepository orderRepository,
 			ProductRepository productRepository,
-			OrderProductsCrossCut orderProductsCrossCut,
-			MeterRegistry meterRegistry) {
+			OrderProductsResolver orderProductsResolver,
+			OrderPricing orderPricing,
+			OrderBatchIngest orderBatchIngest,
+			OrderMetrics metrics,
+			MeterRegistry meterRegistry,
+			@Value("${app.orders.max-page-size:100}") int maxPageSize) {
 
         this.assembler = assembler;
         this.orderRepository = orderRepository;
         this.productRepository = productRepository;
-		this.orderProductsCrossCut = orderProductsCrossCut;
+		this.orderProductsResolver = orderProductsResolver;
+		this.orderPricing = orderPricing;
+		this.orderBatchIngest = orderBatchIngest;
+		this.metrics = metrics;
         this.meterRegistry = meterRegistry;
+		this.maxPageSize = maxPageSize;
 
 		this.counterQuantidadeNovasSolicitacoes = Counter.builder("app_custom_quantidade_novas_solicitacoes")
 				.description("quantidade de novas solicitações efetuadas")
 				.register(meterRegistry);
-
-		Gauge.builder("app_custom_metric_quantidade_de_produtos", gaugeValueProdutosAdquiridos::get)
-				.description("Quantidade de produtos adquiridos")
-				.register(meterRegistry);
     }
 
 	@GetMapping("/orders")
@@ -65,17 +72,18 @@ public class OrderController {
 			@RequestParam(defaultValue = "0") final Integer page,
 			@RequestParam(defaultValue = "100") final Integer size) {
 
-		final Pageable pageable = PageRequest.of(page, size);
+		final Pageable pageable = PageRequest.of(page, pageSize(size));
 
+		long start = System.nanoTime();
 		final List<Order> orders = orderRepository.findAll(pageable).stream().toList();
-		orders.stream()
+		final List<OrderItem> items = orders.stream()
 				.map(Order::getItems)
 				.flatMap(Collection::stream)
-				.parallel()
-				.forEach(item -> {
-					final Product p = orderProductsCrossCut.findById(item.getProduct().getId());
-					item.setProduct(p);
-				});
+				.toList();
+		start = OrderMetrics.stage(metrics.all.persistence, start);
+
+		orderProductsResolver.attach(items);
+		start = OrderMetrics.stage(metrics.all.productResolution, start);
 
 		//final List<EntityModel<Order>> orders = orderRepository.findAll(pageable).stream()
 		//		.map(assembler::toModel)
@@ -84,27 +92,56 @@ public class OrderController {
 		final List<EntityModel<Order>> ordersModel = orders.stream()
 				.map(assembler::toModel)
 				.toList();
+		final CollectionModel<EntityModel<Order>> model = CollectionModel.of(ordersModel,
+				linkTo(methodOn(OrderController.class).all(0, 100)).withSelfRel());
+		OrderMetrics.stage(metrics.all.assembly, start);
 
 		log.info("{} orders retrieved", orders.size());
-		return CollectionModel.of(ordersModel,
-				linkTo(methodOn(OrderController.class).all(0, 100)).withSelfRel());
+		return model;
+	}
+
+	@GetMapping(value = "/orders", params = "cursor")
+	public CollectionModel<EntityModel<Order>> allByCursor(
+			@RequestParam final String cursor,
+			@RequestParam(defaultValue = "100") final Integer size) {
+
+		final int pageSize = pageSize(size);
+		long start = System.nanoTime();
+		final Slice<Order> orders = orderRepository.findByIdGreaterThanOrderByIdAsc(
+				OrderCursor.decode(cursor), PageRequest.ofSize(pageSize));
+		final List<OrderItem> items = orders.stream()
+				.map(Order::getItems)
+				.flatMap(Collection::stream)
+				.toList();
+		start = OrderMetrics.stage(metrics.all.persistence, start);
+
+		orderProductsResolver.attach(items);
+		start = OrderMetrics.stage(metrics.all.productResolution, start);
+
+		final CollectionModel<EntityModel<Order>> model = assembler.toSliceModel(orders, cursor, pageSize);
+		OrderMetrics.stage(metrics.all.assembly, start);
+
+		log.info("{} orders retrieved after cursor", orders.getNumberOfElements());
+		return model;
 	}
 
 	@GetMapping("/orders/{id}")
 	public EntityModel<Order> one(@PathVariable Long id) {
 		log.info("Request for order by ID: {}", id);
 
-		final Order order = orderRepository.findById(id)
+		long start = System.nanoTime();
+		final Order order = orderRepository.findWithItemsById(id)
 				.orElseThrow(() -> new OrderNotFoundException(id));
+		start = OrderMetrics.stage(metrics.one.persistence, start);
 
-		order.getItems().forEach(item -> {
-			final Product p = orderProductsCrossCut.findById(item.getProduct().getId());
-			item.setProduct(p);
-		});
+		orderProductsResolver.attach(order.getItems());
+		start = OrderMetrics.stage(metrics.one.productResolution, start);
 
 		log.debug("Order: {}", order);
 
-		return assembler.toModel(order);
+		final EntityModel<Order> model = assembler.toModel(order);
+		OrderMetrics.stage(metrics.one.assembly, start);
+		return model;
 	}
 
 	@PostMapping("/orders")
@@ -119,48 +156,68 @@ public class OrderController {
 
 		order.setStatus(OrderStatus.IN_PROGRESS);
 
-		log.debug("calculating total price for order: {}", order.getId());
-		BigDecimal totalPrice = BigDecimal.ZERO;
-		for (OrderItem item : order.getItems()) {
-			final Long productId = item.getProduct().getId();
+		long start = System.nanoTime();
+		final Map<Long, Product> products = orderProductsResolver.resolve(order.getItems());
+		start = OrderMetrics.stage(metrics.newOrder.productResolution, start);
 
-			// final Product product = productRepository.findById(productId)
-			//	.orElseThrow(() -> new OrderItemProductNotFoundException(productId));
-			final Product product = orderProductsCrossCut.findById(productId);
-
-			final BigDecimal productPrice = product.getPrice().multiply(BigDecimal.valueOf(item.getQuantity()));
-			item.setProduct(product);
-			totalPrice = totalPrice.add(productPrice);
-		}
-		order.setTotalPrice(totalPrice);
+		log.debug("calculating total price for order: {}", order.getId());
+		orderPricing.price(order, products);
+		start = OrderMetrics.stage(metrics.newOrder.pricing, start);
 
 		log.debug("order that is going to be persisted: {}", order);
 		final Order newOrder = orderRepository.save(order);
+		start = OrderMetrics.stage(metrics.newOrder.persistence, start);
 
 		log.debug("order saved successfully: {}", newOrder);
 
+		final EntityModel<Order> model = assembler.toModel(newOrder);
+		OrderMetrics.stage(metrics.newOrder.assembly, start);
+
 		// ------ métricas ----------------------------
 		counterQuantidadeNovasSolicitacoes.increment();
-		gaugeValueProdutosAdquiridos.set(order.getItems().stream()
-				.map(OrderItem::getQuantity)
-				.reduce(Integer::sum)
-				.orElse(0));
+		metrics.orderCreated(newOrder);
 		// --------------------------------------------
 
 		return ResponseEntity
 				.created(linkTo(methodOn(OrderController.class).one(newOrder.getId())).toUri())
-				.body(assembler.toModel(newOrder));
+				.body(model);
+	}
+
+	@PostMapping("/orders/batch")
+	public ResponseEntity<CollectionModel<EntityModel<Order>>> newOrders(final @RequestBody List<Order> orders) {
+		log.info("requested batch of {} orders", orders.size());
+
+		final List<Order> newOrders = orderBatchIngest.ingest(orders);
+
+		log.info("{} orders saved successfully", newOrders.size());
+
+		// ------ métricas ----------------------------
+		counterQuantidadeNovasSolicitacoes.increment(newOrders.size());
+		newOrders.forEach(metrics::orderCreated);
+		// --------------------------------------------
+
+		return ResponseEntity
+				.status(HttpStatus.CREATED)
+				.body(CollectionModel.of(newOrders.stream().map(assembler::toModel).toList(),
+						linkTo(methodOn(OrderController.class).all(0, 100)).withRel("orders")));
+	}
+
+	private int pageSize(final Integer size) {
+		return Math.max(1, Math.min(size, maxPageSize));
 	}
 
 	@DeleteMapping("/orders/{id}/cancel")
 	public ResponseEntity<?> cancel(@PathVariable Long id) {
 
-		final Order order = orderRepository.findById(id)
+		final Order order = orderRepository.findWithItemsById(id)
 				.orElseThrow(() -> new OrderNotFoundException(id));
 
 		if (order.getStatus() == OrderStatus.IN_PROGRESS) {
 			order.setStatus(OrderStatus.CANCELLED);
-			return ResponseEntity.ok(assembler.toModel(orderRepository.save(order)));
+
+			final Order cancelledOrder = orderRepository.save(order);
+			orderProductsResolver.attach(cancelledOrder.getItems());
+			return ResponseEntity.ok(assembler.toModel(cancelledOrder));
 		}
 
 		log.debug("order can't be canceled: {}", order);
@@ -177,7 +234,7 @@ public class OrderController {
 	public ResponseEntity<?> complete(@PathVariable Long id) {
 		log.info("request for completing an order - ID: {}", id);
 
-		final Order order = orderRepository.findById(id)
+		final Order order = orderRepository.findWithItemsById(id)
 				.orElseThrow(() -> new OrderNotFoundException(id));
 
 		if (order.getStatus() == OrderStatus.IN_PROGRESS) {
@@ -185,6 +242,7 @@ public class OrderController {
 			order.setStatus(OrderStatus.COMPLETED);
 
 			final Order persistedOrder = orderRepository.save(order);
+			orderProductsResolver.attach(persistedOrder.getItems());
 			log.debug("order persisted: {}", persistedOrder);
 
 			return ResponseEntity.ok(assembler.toModel(persistedOrder));
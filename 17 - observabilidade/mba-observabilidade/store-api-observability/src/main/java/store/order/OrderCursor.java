@@ -0,0 +1,30 @@
+package store.order;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque cursor for keyset pagination of orders: the id of the last order of the previous page.
+ * An empty cursor starts from the beginning.
+ */
+final class OrderCursor {
+
+	private OrderCursor() {
+	}
+
+	static String encode(final long lastId) {
+		return Base64.getUrlEncoder().withoutPadding()
+				.encodeToString(Long.toString(lastId).getBytes(StandardCharsets.US_ASCII));
+	}
+
+	static long decode(final String cursor) {
+		if (cursor == null || cursor.isBlank()) {
+			return 0L;
+		}
+		try {
+			return Long.parseLong(new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.US_ASCII));
+		} catch (IllegalArgumentException e) {
+			throw new InvalidOrderCursorException(cursor);
+		}
+	}
+}
@@ -1,5 +1,6 @@
 package store.order;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -16,12 +17,30 @@ import store.product.Product;
 public class OrderItem {
 
 	@Id
-	@GeneratedValue(strategy = GenerationType.AUTO)
+	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_items_seq")
+	@SequenceGenerator(name = "order_items_seq", sequenceName = "order_items_seq", allocationSize = 50)
 	private long id;
 
-	@ManyToOne
-	@JoinColumn(name = "product_id")
+	// o pedido guarda apenas o id do produto; os dados do produto vêm do serviço de produtos
+	@JsonIgnore
+	@Column(name = "product_id")
+	private Long productId;
+
+	@Transient
 	private Product product;
 
 	private int quantity;
+
+	@PrePersist
+	@PreUpdate
+	void syncProductId() {
+		if (product != null) {
+			productId = product.getId();
+		}
+	}
+
+	@PostLoad
+	void productReference() {
+		product = Product.builder().id(productId).build();
+	}
 }
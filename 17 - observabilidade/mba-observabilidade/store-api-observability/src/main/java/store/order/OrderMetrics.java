@@ -0,0 +1,88 @@
+package store.order;
+
+import java.util.concurrent.TimeUnit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+/**
+ * Meters of the order flow. Every operation/stage timer is registered once at startup, so the
+ * request path only reads {@link System#nanoTime()} and records into an existing meter: no
+ * {@code Timer.Sample}, tag or builder is created per call.
+ */
+@Component
+class OrderMetrics {
+
+	final Stages newOrder;
+	final Stages all;
+	final Stages one;
+
+	final DistributionSummary summaryItensPorPedido;
+	final DistributionSummary summaryValorPedido;
+	final Counter counterProdutosAdquiridos;
+
+	OrderMetrics(final MeterRegistry meterRegistry) {
+		this.newOrder = new Stages(meterRegistry, "newOrder", true);
+		this.all = new Stages(meterRegistry, "all", false);
+		this.one = new Stages(meterRegistry, "one", false);
+
+		this.summaryItensPorPedido = DistributionSummary.builder("app_custom_order_items")
+				.description("quantidade de itens por pedido criado")
+				.register(meterRegistry);
+
+		this.summaryValorPedido = DistributionSummary.builder("app_custom_order_value")
+				.description("valor total por pedido criado")
+				.register(meterRegistry);
+
+		this.counterProdutosAdquiridos = Counter.builder("app_custom_metric_quantidade_de_produtos")
+				.description("Quantidade de produtos adquiridos")
+				.register(meterRegistry);
+	}
+
+	void orderCreated(final Order order) {
+		summaryItensPorPedido.record(order.getItems().size());
+		summaryValorPedido.record(order.getTotalPrice().doubleValue());
+
+		int quantity = 0;
+		for (OrderItem item : order.getItems()) {
+			quantity += item.getQuantity();
+		}
+		counterProdutosAdquiridos.increment(quantity);
+	}
+
+	/**
+	 * Records the time elapsed since {@code start} into {@code timer} and returns the current
+	 * {@link System#nanoTime()}, to be used as the start of the next stage.
+	 */
+	static long stage(final Timer timer, final long start) {
+		final long now = System.nanoTime();
+		timer.record(now - start, TimeUnit.NANOSECONDS);
+		return now;
+	}
+
+	static final class Stages {
+
+		final Timer productResolution;
+		final Timer pricing; // null nas operações de leitura
+		final Timer persistence;
+		final Timer assembly;
+
+		private Stages(final MeterRegistry meterRegistry, final String operation, final boolean priced) {
+			this.productResolution = timer(meterRegistry, operation, "product_resolution");
+			this.pricing = priced ? timer(meterRegistry, operation, "pricing") : null;
+			this.persistence = timer(meterRegistry, operation, "persistence");
+			this.assembly = timer(meterRegistry, operation, "assembly");
+		}
+
+		private static Timer timer(final MeterRegistry meterRegistry, final String operation, final String stage) {
+			return Timer.builder("app_custom_order_stage")
+					.description("tempo de cada etapa do fluxo de pedidos")
+					.tag("operation", operation)
+					.tag("stage", stage)
+					.register(meterRegistry);
+		}
+	}
+}
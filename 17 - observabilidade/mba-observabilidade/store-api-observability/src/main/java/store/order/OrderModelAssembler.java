@@ -2,29 +2,55 @@ package store.order;
 
 import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.*;
 
+import org.springframework.data.domain.Slice;
+import org.springframework.hateoas.CollectionModel;
 import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.IanaLinkRelations;
 import org.springframework.hateoas.server.RepresentationModelAssembler;
 import org.springframework.stereotype.Component;
+import store.config.LinkTemplate;
 
 @Component
 public class OrderModelAssembler implements RepresentationModelAssembler<Order, EntityModel<Order>> {
 
+	private final LinkTemplate oneLink = LinkTemplate.withId(id -> methodOn(OrderController.class).one(id));
+	private final LinkTemplate allLink = LinkTemplate.of(methodOn(OrderController.class).all(0, 100));
+	private final LinkTemplate cancelLink = LinkTemplate.withId(id -> methodOn(OrderController.class).cancel(id));
+	private final LinkTemplate completeLink = LinkTemplate.withId(id -> methodOn(OrderController.class).complete(id));
+
 	@Override
 	public EntityModel<Order> toModel(Order order) {
 
 		// Unconditional links to single-item resource and aggregate root
 
 		EntityModel<Order> orderModel = EntityModel.of(order,
-				linkTo(methodOn(OrderController.class).one(order.getId())).withSelfRel(),
-				linkTo(methodOn(OrderController.class).all(0, 100)).withRel("orders"));
+				oneLink.toLink(order.getId(), IanaLinkRelations.SELF),
+				allLink.toLink("orders"));
 
 		// Conditional links based on state of the order
 
 		if (order.getStatus() == OrderStatus.IN_PROGRESS) {
-			orderModel.add(linkTo(methodOn(OrderController.class).cancel(order.getId())).withRel("cancel"));
-			orderModel.add(linkTo(methodOn(OrderController.class).complete(order.getId())).withRel("complete"));
+			orderModel.add(cancelLink.toLink(order.getId(), "cancel"));
+			orderModel.add(completeLink.toLink(order.getId(), "complete"));
 		}
 
 		return orderModel;
 	}
+
+	public CollectionModel<EntityModel<Order>> toSliceModel(final Slice<Order> orders, final String cursor, final int size) {
+
+		CollectionModel<EntityModel<Order>> ordersModel = CollectionModel.of(
+				orders.map(this::toModel).getContent(),
+				linkTo(methodOn(OrderController.class).allByCursor(cursor, size)).withSelfRel());
+
+		// Opaque cursor to the next slice, only when there is one
+
+		if (orders.hasNext()) {
+			final Order last = orders.getContent().get(orders.getNumberOfElements() - 1);
+			ordersModel.add(linkTo(methodOn(OrderController.class).allByCursor(OrderCursor.encode(last.getId()), size))
+					.withRel(IanaLinkRelations.NEXT));
+		}
+
+		return ordersModel;
+	}
 }
@@ -0,0 +1,32 @@
+package store.order;
+
+import java.util.Map;
+
+import org.springframework.stereotype.Component;
+import store.Money;
+import store.product.Product;
+
+/**
+ * Prices an order against products already resolved by {@link OrderProductsResolver}: each item
+ * gets its product and the order its total. Shared by the single and the batch order endpoints.
+ * The total is summed in {@link Money}, whose arithmetic fails on overflow instead of wrapping.
+ */
+@Component
+class OrderPricing {
+
+	void price(final Order order, final Map<Long, Product> products) {
+		Money total = Money.ZERO;
+		for (OrderItem item : order.getItems()) {
+			final Long productId = item.getProduct().getId();
+
+			final Product product = products.get(productId);
+			if (product == null) {
+				throw new OrderItemProductNotFoundException(productId);
+			}
+
+			item.setProduct(product);
+			total = total.plus(product.getPrice().times(item.getQuantity()));
+		}
+		order.setTotalPrice(total);
+	}
+}
@@ -1,26 +1,226 @@
 package store.order;
 
-import lombok.RequiredArgsConstructor;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.cache.annotation.Cacheable;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.client.HttpClientErrorException;
 import store.product.Product;
+import store.product.ProductChangedEvent;
 
+/**
+ * Products as seen by the order service. Lookups are served from a bounded cache that expires
+ * entries after {@code api.products.cache.expire-after-write} and reloads them in the background
+ * once they are older than {@code api.products.cache.refresh-after-write}. Misses are handed to
+ * {@link ProductLookupCoalescer}, which merges them with concurrent misses of other requests.
+ * Background reloads are conditional GETs with the ETag kept next to the cached product: an
+ * unchanged product costs a bodiless 304 instead of a new download.
+ * <p>
+ * The last copy of each product is kept for {@code api.products.cache.stale-max-age}. When the
+ * product service is unavailable (see {@link ProductsServiceGuard}) lookups fall back to it, with
+ * {@link Product#isStale()} set; without a copy the {@link ProductServiceUnavailableException}
+ * propagates.
+ */
+@Slf4j
 @Service
-@RequiredArgsConstructor
 public class OrderProductsCrossCut {
 
-    private final RestTemplate restTemplate;
+    static final String CACHE_NAME = "products";
+
+    private final LoadingCache<Long, CachedProduct> cache;
+    private final Cache<Long, Product> lastKnown;
+    private final ProductsClient productsClient;
+
+    final Counter counterCacheAcerto;
+    final Counter counterCacheFalha;
+    final Counter counterRevalidacaoNaoModificado;
+    final Counter counterRevalidacaoModificado;
+    final Counter counterCopiaAntiga;
+
+    public OrderProductsCrossCut(
+            ProductLookupCoalescer productLookupCoalescer,
+            ProductsClient productsClient,
+            MeterRegistry meterRegistry,
+            @Value("${api.products.cache.max-size:10000}") long maxSize,
+            @Value("${api.products.cache.expire-after-write:10m}") Duration expireAfterWrite,
+            @Value("${api.products.cache.refresh-after-write:1m}") Duration refreshAfterWrite,
+            @Value("${api.products.cache.stale-max-age:1h}") Duration staleMaxAge) {
+
+        this.productsClient = productsClient;
+        this.lastKnown = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(staleMaxAge)
+                .build();
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(expireAfterWrite)
+                .refreshAfterWrite(refreshAfterWrite)
+                .recordStats()
+                .build(new CacheLoader<>() {
+                    // carga em lote (GET /products?ids=...) não traz ETag por produto: o primeiro
+                    // refresh baixa o produto inteiro e os seguintes já são condicionais
+                    @Override
+                    public CachedProduct load(final Long id) {
+                        final Product product = productLookupCoalescer.lookup(id);
+                        return product == null ? null : loaded(new CachedProduct(product, null));
+                    }
+
+                    @Override
+                    public Map<Long, CachedProduct> loadAll(final Set<? extends Long> ids) {
+                        final Map<Long, CachedProduct> loaded = new HashMap<>();
+                        productLookupCoalescer.lookupAll(List.copyOf(ids))
+                                .forEach((id, product) -> loaded.put(id, loaded(new CachedProduct(product, null))));
+                        return loaded;
+                    }
+
+                    @Override
+                    public CachedProduct reload(final Long id, final CachedProduct cached) {
+                        final CachedProduct reloaded = revalidate(id, cached);
+                        if (reloaded == null) {
+                            lastKnown.invalidate(id);
+                            return null;
+                        }
+                        return loaded(reloaded);
+                    }
+                });
+
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+
+        this.counterCacheAcerto = lookups(meterRegistry, "hit");
+        this.counterCacheFalha = lookups(meterRegistry, "miss");
+
+        this.counterRevalidacaoNaoModificado = revalidations(meterRegistry, "not_modified");
+        this.counterRevalidacaoModificado = revalidations(meterRegistry, "modified");
+        this.counterCopiaAntiga = Counter.builder("app_custom_products_stale_served")
+                .description("produtos servidos da última cópia conhecida com o serviço de produtos indisponível")
+                .register(meterRegistry);
+
+        Gauge.builder("app_custom_products_cache_revalidation_hit_ratio", this, OrderProductsCrossCut::revalidationHitRatio)
+                .description("fração das revalidações do cache de produtos respondidas com 304 (produto não modificado)")
+                .register(meterRegistry);
+    }
+
+    private static Counter revalidations(final MeterRegistry meterRegistry, final String result) {
+        return Counter.builder("app_custom_products_cache_revalidations")
+                .description("refresh de produtos do cache por GET condicional (If-None-Match)")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private double revalidationHitRatio() {
+        final double notModified = counterRevalidacaoNaoModificado.count();
+        final double total = notModified + counterRevalidacaoModificado.count();
+        return total == 0 ? Double.NaN : notModified / total;
+    }
 
-    @Value("${api.products.endpoint.url}")
-    private String apiProdutsEndpointUrl;
+    private static Counter lookups(final MeterRegistry meterRegistry, final String result) {
+        return Counter.builder("app_custom_products_cache_lookups")
+                .description("buscas de produtos pelo serviço de pedidos, atendidas pelo cache (hit) ou não (miss)")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    public Product findById(final Long id) {
+        (isCached(id) ? counterCacheAcerto : counterCacheFalha).increment();
+        final CachedProduct cached;
+        try {
+            cached = cache.get(id);
+        } catch (ProductServiceUnavailableException e) {
+            return fallback(List.of(id), e).get(0);
+        }
+        return cached == null ? null : cached.product();
+    }
+
+    public List<Product> findAllById(final Collection<Long> ids) {
+        int hits = 0;
+        for (Long id : ids) {
+            if (isCached(id)) {
+                hits++;
+            }
+        }
+        counterCacheAcerto.increment(hits);
+        counterCacheFalha.increment(ids.size() - hits);
+        try {
+            return cache.getAll(ids).values().stream()
+                    .map(CachedProduct::product)
+                    .toList();
+        } catch (ProductServiceUnavailableException e) {
+            return fallback(ids, e);
+        }
+    }
+
+    // produtos ainda no cache seguem normais; os demais vêm da última cópia, marcados como stale
+    private List<Product> fallback(final Collection<Long> ids, final ProductServiceUnavailableException e) {
+        final List<Product> products = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            final CachedProduct cached = cache.policy().getIfPresentQuietly(id);
+            if (cached != null) {
+                products.add(cached.product());
+                continue;
+            }
+            final Product last = lastKnown.getIfPresent(id);
+            if (last == null) {
+                throw e;
+            }
+            counterCopiaAntiga.increment();
+            products.add(last.toBuilder().stale(true).build());
+        }
+        log.debug("{} products served from the last known copies: {}", products.size(), e.getMessage());
+        return products;
+    }
+
+    private CachedProduct loaded(final CachedProduct cached) {
+        lastKnown.put(cached.product().getId(), cached.product());
+        return cached;
+    }
+
+    // null remove a entrada: o produto foi removido no serviço de produtos
+    CachedProduct revalidate(final Long id, final CachedProduct cached) {
+        final ResponseEntity<Product> response;
+        try {
+            response = productsClient.fetchIfModified(id, cached.etag());
+        } catch (HttpClientErrorException.NotFound e) {
+            return null;
+        }
+        if (response.getStatusCode() == HttpStatus.NOT_MODIFIED) {
+            counterRevalidacaoNaoModificado.increment();
+            return cached;
+        }
+        counterRevalidacaoModificado.increment();
+        return response.getBody() == null ? null : new CachedProduct(response.getBody(), response.getHeaders().getETag());
+    }
+
+    // consulta sem efeitos: não conta nas estatísticas do cache nem dispara refresh
+    private boolean isCached(final Long id) {
+        return cache.policy().getIfPresentQuietly(id) != null;
+    }
+
+    // depois do commit: invalidar antes deixaria um refetch concorrente guardar a versão anterior
+    @TransactionalEventListener(fallbackExecution = true)
+    void onProductChanged(final ProductChangedEvent event) {
+        log.debug("invalidating cached product: {}", event.id());
+        cache.invalidate(event.id());
+        lastKnown.invalidate(event.id());
+    }
 
-    @Cacheable("products")
-    Product findById(final Long id) {
-        final String url = String.format("%s/%s", apiProdutsEndpointUrl, id);
-        return restTemplate
-                .getForEntity(url, Product.class)
-                .getBody();
+    record CachedProduct(Product product, String etag) {
     }
 }
@@ -0,0 +1,101 @@
+package store.order;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import store.config.FanOutExecutor;
+import store.product.Product;
+
+/**
+ * Resolves the products of a set of order items with as few calls to the product service as
+ * possible: the distinct ids are first looked up in the {@link ProductCatalogReplica}, and the
+ * ones it does not know are fetched in batches of {@code api.products.batch.size}, the batches
+ * running concurrently on the {@link FanOutExecutor}.
+ */
+@Slf4j
+@Component
+public class OrderProductsResolver {
+
+	private final ProductCatalogReplica productCatalogReplica;
+	private final OrderProductsCrossCut orderProductsCrossCut;
+	private final FanOutExecutor fanOutExecutor;
+	private final int batchSize;
+
+	final DistributionSummary summaryTamanhoLote;
+	final Counter counterChamadasEvitadas;
+
+	public OrderProductsResolver(
+			ProductCatalogReplica productCatalogReplica,
+			OrderProductsCrossCut orderProductsCrossCut,
+			FanOutExecutor fanOutExecutor,
+			MeterRegistry meterRegistry,
+			@Value("${api.products.batch.size:50}") int batchSize) {
+
+		this.productCatalogReplica = productCatalogReplica;
+		this.orderProductsCrossCut = orderProductsCrossCut;
+		this.fanOutExecutor = fanOutExecutor;
+		this.batchSize = batchSize;
+
+		this.summaryTamanhoLote = DistributionSummary.builder("app_custom_products_batch_size")
+				.description("quantidade de produtos solicitados por chamada ao serviço de produtos")
+				.register(meterRegistry);
+
+		this.counterChamadasEvitadas = Counter.builder("app_custom_products_round_trips_saved")
+				.description("chamadas ao serviço de produtos evitadas pela busca em lote")
+				.register(meterRegistry);
+	}
+
+	Map<Long, Product> resolve(final Collection<OrderItem> items) {
+		final List<Long> ids = items.stream()
+				.map(item -> item.getProduct().getId())
+				.filter(Objects::nonNull)
+				.distinct()
+				.toList();
+
+		final Map<Long, Product> products = new HashMap<>();
+		final List<Long> missing = new ArrayList<>();
+		for (Long id : ids) {
+			final Product product = productCatalogReplica.find(id);
+			if (product != null) {
+				products.put(id, product);
+			} else {
+				missing.add(id);
+			}
+		}
+
+		final List<List<Long>> batches = new ArrayList<>();
+		for (int from = 0; from < missing.size(); from += batchSize) {
+			final List<Long> batch = missing.subList(from, Math.min(from + batchSize, missing.size()));
+			summaryTamanhoLote.record(batch.size());
+			batches.add(batch);
+		}
+
+		fanOutExecutor.invokeAll(batches, orderProductsCrossCut::findAllById)
+				.forEach(batch -> batch.forEach(product -> products.put(product.getId(), product)));
+
+		final int calls = batches.size();
+		counterChamadasEvitadas.increment(Math.max(0, items.size() - calls));
+		log.debug("{} products resolved for {} items in {} calls", products.size(), items.size(), calls);
+		return products;
+	}
+
+	void attach(final Collection<OrderItem> items) {
+		final Map<Long, Product> products = resolve(items);
+		items.forEach(item -> {
+			final Product product = products.get(item.getProduct().getId());
+			if (product != null) {
+				item.setProduct(product);
+			}
+		});
+	}
+}
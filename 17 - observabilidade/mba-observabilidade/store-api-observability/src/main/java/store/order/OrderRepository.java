@@ -1,7 +1,23 @@
 package store.order;
 
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 
 public interface OrderRepository extends JpaRepository<Order, Long> {
 
+	// keyset: id > :cursor ORDER BY id LIMIT :size (+1 para saber se há próxima página, sem COUNT)
+	Slice<Order> findByIdGreaterThanOrderByIdAsc(long cursor, Pageable pageable);
+
+	// pedido e itens em uma única consulta (left join)
+	@EntityGraph(attributePaths = "items")
+	Optional<Order> findWithItemsById(Long id);
+
+	// todos os pedidos com itens, fora de uma sessão (ex.: carga inicial)
+	@EntityGraph(attributePaths = "items")
+	List<Order> findAllWithItemsBy();
 }
@@ -0,0 +1,76 @@
+package store.order;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+
+import store.product.Product;
+
+/**
+ * Immutable copy of the product catalog at a change log version: ids in a sorted {@code long[]}
+ * and the products at the same positions, looked up by binary search with no boxing. Changes
+ * produce a new catalog, so readers never see a half-applied delta.
+ */
+final class ProductCatalog {
+
+	private static final Comparator<Product> BY_ID = Comparator.comparingLong(Product::getId);
+
+	final long version;
+
+	private final long[] ids;
+	private final Product[] products;
+
+	private ProductCatalog(final long version, final long[] ids, final Product[] products) {
+		this.version = version;
+		this.ids = ids;
+		this.products = products;
+	}
+
+	static ProductCatalog of(final long version, final Collection<Product> products) {
+		return new ProductCatalog(version, new long[0], new Product[0]).apply(version, products, new long[0]);
+	}
+
+	Product get(final long id) {
+		final int index = Arrays.binarySearch(ids, id);
+		return index < 0 ? null : products[index];
+	}
+
+	int size() {
+		return ids.length;
+	}
+
+	ProductCatalog apply(final long version, final Collection<Product> changed, final Collection<Long> removed) {
+		return apply(version, changed, removed.stream().mapToLong(Long::longValue).toArray());
+	}
+
+	// intercala os produtos atuais com os alterados (ambos ordenados por id), descartando os removidos
+	private ProductCatalog apply(final long version, final Collection<Product> changed, final long[] removed) {
+		final Product[] updates = changed.toArray(Product[]::new);
+		Arrays.sort(updates, BY_ID);
+		Arrays.sort(removed);
+
+		final long[] newIds = new long[ids.length + updates.length];
+		final Product[] newProducts = new Product[newIds.length];
+		int current = 0;
+		int update = 0;
+		int size = 0;
+		while (current < ids.length || update < updates.length) {
+			final Product next;
+			if (update == updates.length || current < ids.length && ids[current] < updates[update].getId()) {
+				next = products[current++];
+			} else {
+				if (current < ids.length && ids[current] == updates[update].getId()) {
+					current++;
+				}
+				next = updates[update++];
+			}
+			if (size > 0 && newIds[size - 1] == next.getId()) {
+				newProducts[size - 1] = next;
+			} else if (Arrays.binarySearch(removed, next.getId()) < 0) {
+				newIds[size] = next.getId();
+				newProducts[size++] = next;
+			}
+		}
+		return new ProductCatalog(version, Arrays.copyOf(newIds, size), Arrays.copyOf(newProducts, size));
+	}
+}
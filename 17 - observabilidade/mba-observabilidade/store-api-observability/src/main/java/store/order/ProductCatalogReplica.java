@@ -0,0 +1,143 @@
+package store.order;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClientException;
+import store.product.Product;
+import store.product.ProductChanges;
+import store.product.ProductSnapshot;
+
+/**
+ * Read-only copy of the product catalog inside the order service, enabled with
+ * {@code api.products.replica.enabled}. It is loaded from {@code GET /products/snapshot} and then
+ * kept current every {@code api.products.replica.sync-interval} from {@code GET /products/changes}.
+ * While the product service is unreachable the last catalog keeps being served and the lag grows.
+ * Ids the replica does not know return {@code null}, and {@link OrderProductsResolver} fetches
+ * them over HTTP.
+ */
+@Slf4j
+@Component
+class ProductCatalogReplica {
+
+    private final ProductsClient productsClient;
+    private final boolean enabled;
+    private final long versionOverlap;
+
+    private final AtomicReference<ProductCatalog> catalog = new AtomicReference<>();
+    private volatile long lastSync;
+
+    final Counter counterReplicaAcerto;
+    final Counter counterReplicaFalha;
+
+    ProductCatalogReplica(
+            ProductsClient productsClient,
+            MeterRegistry meterRegistry,
+            @Value("${api.products.replica.enabled:false}") boolean enabled,
+            @Value("${api.products.replica.version-overlap:50}") long versionOverlap) {
+
+        this.productsClient = productsClient;
+        this.enabled = enabled;
+        this.versionOverlap = Math.max(0, versionOverlap);
+
+        Gauge.builder("app_custom_products_replica_size", this, ProductCatalogReplica::size)
+                .description("produtos na réplica local do catálogo")
+                .register(meterRegistry);
+
+        Gauge.builder("app_custom_products_replica_lag", this, ProductCatalogReplica::lagSeconds)
+                .description("tempo desde a última sincronização bem-sucedida da réplica do catálogo")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+
+        Gauge.builder("app_custom_products_replica_version", this, ProductCatalogReplica::version)
+                .description("versão do log de alterações de produtos aplicada na réplica")
+                .register(meterRegistry);
+
+        this.counterReplicaAcerto = lookups(meterRegistry, "hit");
+        this.counterReplicaFalha = lookups(meterRegistry, "miss");
+    }
+
+    private static Counter lookups(final MeterRegistry meterRegistry, final String result) {
+        return Counter.builder("app_custom_products_replica_lookups")
+                .description("buscas de produtos na réplica do catálogo; miss segue para o serviço de produtos")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    Product find(final long id) {
+        final ProductCatalog current = catalog.get();
+        if (current == null) {
+            return null;
+        }
+        final Product product = current.get(id);
+        (product != null ? counterReplicaAcerto : counterReplicaFalha).increment();
+        return product;
+    }
+
+    @Scheduled(fixedDelayString = "${api.products.replica.sync-interval:PT5S}")
+    void sync() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            final ProductCatalog current = catalog.get();
+            catalog.set(current == null ? bootstrap() : follow(current));
+            lastSync = System.nanoTime();
+        } catch (RestClientException e) {
+            log.warn("product catalog replica not synchronized: {}", e.getMessage());
+        }
+    }
+
+    private ProductCatalog bootstrap() {
+        final ProductSnapshot snapshot = productsClient.snapshot();
+        log.info("product catalog replica loaded: {} products, version {}", snapshot.products().size(), snapshot.version());
+        return ProductCatalog.of(snapshot.version(), snapshot.products());
+    }
+
+    // as últimas versões já aplicadas são pedidas de novo: uma alteração gravada com versão menor
+    // que outra já lida, mas confirmada depois dela, ainda é aplicada (reaplicar é inofensivo)
+    private ProductCatalog follow(final ProductCatalog current) {
+        ProductCatalog next = current;
+        long since = Math.max(0, current.version - versionOverlap);
+        ProductChanges changes;
+        do {
+            changes = productsClient.changesSince(since);
+            next = next.apply(Math.max(next.version, changes.version()), changes.changed(), changes.removed());
+            since = changes.version();
+        } while (changes.hasMore());
+
+        // o log só cresce: terminar abaixo da versão já aplicada significa que ele recomeçou (ex.:
+        // serviço de produtos reiniciado com create-drop) e o catálogo local não vale mais
+        if (since < current.version) {
+            log.info("product change log restarted at version {} (replica at {}), reloading the catalog",
+                    since, current.version);
+            return bootstrap();
+        }
+        return next;
+    }
+
+    private double size() {
+        final ProductCatalog current = catalog.get();
+        return current == null ? 0 : current.size();
+    }
+
+    private double lagSeconds() {
+        final long synced = lastSync;
+        if (!enabled || synced == 0) {
+            return Double.NaN;
+        }
+        return (System.nanoTime() - synced) / (double) TimeUnit.SECONDS.toNanos(1);
+    }
+
+    private double version() {
+        final ProductCatalog current = catalog.get();
+        return current == null ? 0 : current.version;
+    }
+}
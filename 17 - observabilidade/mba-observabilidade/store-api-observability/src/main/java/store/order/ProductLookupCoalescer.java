@@ -0,0 +1,182 @@
+package store.order;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import store.product.Product;
+
+/**
+ * Sits between the product cache and the product service and merges concurrent misses:
+ * <ul>
+ *     <li>lookups for an id that is already being fetched share the in-flight future;</li>
+ *     <li>lookups for different ids arriving within {@code api.products.coalescing.window} are
+ *     sent as one bulk call (or as soon as {@code api.products.coalescing.max-batch} ids are waiting).</li>
+ * </ul>
+ * The thread that opens a window waits for it to close and performs the call, so no extra
+ * threads are needed.
+ */
+@Slf4j
+@Component
+class ProductLookupCoalescer {
+
+    private final ProductsClient productsClient;
+    private final long windowNanos;
+    private final int maxBatch;
+
+    private final ConcurrentMap<Long, CompletableFuture<Product>> inFlight = new ConcurrentHashMap<>();
+    private final Object lock = new Object();
+    private Window open;
+
+    final Counter counterBuscas;
+    final Counter counterBuscasAgrupadas;
+    final DistributionSummary summaryOcupacaoJanela;
+
+    ProductLookupCoalescer(
+            ProductsClient productsClient,
+            MeterRegistry meterRegistry,
+            @Value("${api.products.coalescing.window:2ms}") Duration window,
+            @Value("${api.products.coalescing.max-batch:50}") int maxBatch) {
+
+        this.productsClient = productsClient;
+        this.windowNanos = window.toNanos();
+        this.maxBatch = Math.max(1, maxBatch);
+
+        this.counterBuscas = Counter.builder("app_custom_products_lookups")
+                .description("produtos não encontrados no cache e solicitados ao serviço de produtos")
+                .register(meterRegistry);
+
+        this.counterBuscasAgrupadas = Counter.builder("app_custom_products_coalesced_lookups")
+                .description("buscas de produto atendidas por uma chamada já em andamento")
+                .register(meterRegistry);
+
+        this.summaryOcupacaoJanela = DistributionSummary.builder("app_custom_products_coalescing_window_size")
+                .description("quantidade de produtos enviados em cada janela de agrupamento")
+                .register(meterRegistry);
+    }
+
+    Product lookup(final Long id) {
+        return lookupAll(List.of(id)).get(id);
+    }
+
+    Map<Long, Product> lookupAll(final Collection<Long> ids) {
+        final Map<Long, CompletableFuture<Product>> futures = new HashMap<>();
+        final List<Window> led = new ArrayList<>(1);
+        final List<Window> full = new ArrayList<>(1);
+
+        for (Long id : ids) {
+            if (futures.containsKey(id)) {
+                continue;
+            }
+            counterBuscas.increment();
+
+            final CompletableFuture<Product> created = new CompletableFuture<>();
+            final CompletableFuture<Product> existing = inFlight.putIfAbsent(id, created);
+            if (existing != null) {
+                counterBuscasAgrupadas.increment();
+                futures.put(id, existing);
+                continue;
+            }
+            futures.put(id, created);
+
+            synchronized (lock) {
+                if (open == null) {
+                    open = new Window(System.nanoTime() + windowNanos, Thread.currentThread());
+                    led.add(open);
+                }
+                open.ids.add(id);
+                if (open.ids.size() >= maxBatch) {
+                    full.add(open);
+                    open = null;
+                }
+            }
+        }
+
+        full.forEach(this::flush);
+        for (Window window : led) {
+            // uma janela que encheu já foi enviada por quem a completou, que acorda o líder
+            long wait;
+            while (!window.flushed.get() && (wait = window.deadline - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            synchronized (lock) {
+                if (open == window) {
+                    open = null;
+                }
+            }
+            flush(window);
+        }
+
+        final Map<Long, Product> products = new HashMap<>();
+        try {
+            futures.forEach((id, future) -> {
+                final Product product = future.join();
+                if (product != null) {
+                    products.put(id, product);
+                }
+            });
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+        return products;
+    }
+
+    private void flush(final Window window) {
+        if (!window.flushed.compareAndSet(false, true)) {
+            return;
+        }
+        LockSupport.unpark(window.leader);
+        summaryOcupacaoJanela.record(window.ids.size());
+
+        try {
+            final Map<Long, Product> products = new HashMap<>();
+            productsClient.fetchAll(window.ids).forEach(product -> products.put(product.getId(), product));
+            log.debug("{} products fetched for a window of {} ids", products.size(), window.ids.size());
+
+            window.ids.forEach(id -> {
+                final CompletableFuture<Product> future = inFlight.remove(id);
+                if (future != null) {
+                    future.complete(products.get(id));
+                }
+            });
+        } catch (RuntimeException e) {
+            window.ids.forEach(id -> {
+                final CompletableFuture<Product> future = inFlight.remove(id);
+                if (future != null) {
+                    future.completeExceptionally(e);
+                }
+            });
+        }
+    }
+
+    private static final class Window {
+
+        private final long deadline;
+        private final Thread leader;
+        private final List<Long> ids = new ArrayList<>();
+        private final AtomicBoolean flushed = new AtomicBoolean();
+
+        private Window(final long deadline, final Thread leader) {
+            this.deadline = deadline;
+            this.leader = leader;
+        }
+    }
+}
@@ -0,0 +1,222 @@
+package store.order;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import store.config.ContextPropagatingTaskDecorator;
+
+/**
+ * Hedged product lookups (when {@code api.products.hedging.enabled}): a call that has not answered
+ * within the hedge delay is sent a second time and the first successful response wins.
+ * <ul>
+ *     <li>the delay is the {@code api.products.hedging.percentile} of the recent first attempts,
+ *     never below {@code api.products.hedging.min-delay};</li>
+ *     <li>every call earns {@code api.products.hedging.budget} of a hedge and a hedge spends a whole
+ *     one, so hedges never exceed that fraction of the calls; without budget the call just waits.</li>
+ * </ul>
+ * Both attempts run on a small dedicated pool, with the caller's MDC and trace. When the pool is
+ * exhausted the call runs on the caller thread without hedging.
+ */
+@Component
+class ProductRequestHedger {
+
+    static final String EXECUTOR_NAME = "products-hedge";
+
+    // orçamento em milésimos de hedge; o saldo acumulado permite rajadas de até MAX_BALANCE hedges
+    private static final long HEDGE = 1000;
+    private static final long MAX_BALANCE = 10 * HEDGE;
+
+    private final boolean enabled;
+    private final long minDelayNanos;
+    private final long depositPerCall;
+    private final AtomicLong balance = new AtomicLong();
+    private volatile long delayNanos;
+
+    private final ThreadPoolExecutor threadPool;
+    private final Executor executor;
+
+    final Timer timerPrimeiraTentativa;
+    final Counter counterHedges;
+    final Counter counterHedgesSemOrcamento;
+    final Counter counterHedgesVencedores;
+
+    ProductRequestHedger(
+            MeterRegistry meterRegistry,
+            ContextPropagatingTaskDecorator contextPropagation,
+            @Value("${api.products.hedging.enabled:false}") boolean enabled,
+            @Value("${api.products.hedging.percentile:0.95}") double percentile,
+            @Value("${api.products.hedging.min-delay:20ms}") Duration minDelay,
+            @Value("${api.products.hedging.budget:0.05}") double budget,
+            @Value("${api.products.hedging.max-threads:64}") int maxThreads) {
+
+        this.enabled = enabled;
+        this.minDelayNanos = minDelay.toNanos();
+        this.delayNanos = minDelayNanos;
+        this.depositPerCall = Math.round(Math.max(0, Math.min(1, budget)) * HEDGE);
+
+        // sem fila: com todas as threads ocupadas a tarefa é rejeitada e a chamada segue sem hedge
+        this.threadPool = new ThreadPoolExecutor(0, Math.max(2, maxThreads),
+                60, TimeUnit.SECONDS,
+                new SynchronousQueue<>(),
+                new CustomizableThreadFactory(EXECUTOR_NAME + "-"));
+        this.executor = task -> threadPool.execute(contextPropagation.decorate(task));
+
+        this.timerPrimeiraTentativa = Timer.builder("app_custom_products_hedging_latency")
+                .description("duração da primeira tentativa das buscas de produtos com hedge, base do atraso do hedge")
+                .publishPercentiles(percentile)
+                .distributionStatisticExpiry(Duration.ofMinutes(1))
+                .register(meterRegistry);
+
+        TimeGauge.builder("app_custom_products_hedge_delay", this, TimeUnit.NANOSECONDS, hedger -> hedger.delayNanos)
+                .description("tempo de espera pela primeira resposta antes de enviar o hedge")
+                .register(meterRegistry);
+
+        this.counterHedges = hedges(meterRegistry, "sent");
+        this.counterHedgesSemOrcamento = hedges(meterRegistry, "over_budget");
+
+        this.counterHedgesVencedores = Counter.builder("app_custom_products_hedge_wins")
+                .description("hedges cuja resposta chegou antes da primeira tentativa")
+                .register(meterRegistry);
+    }
+
+    private static Counter hedges(final MeterRegistry meterRegistry, final String result) {
+        return Counter.builder("app_custom_products_hedges")
+                .description("buscas de produtos que passaram do atraso do hedge: hedge enviado ou sem orçamento")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    <T> T call(final Supplier<T> call) {
+        if (!enabled) {
+            return call.get();
+        }
+        balance.accumulateAndGet(depositPerCall, (current, deposit) -> Math.min(MAX_BALANCE, current + deposit));
+
+        final long start = System.nanoTime();
+        final CompletableFuture<T> primary;
+        try {
+            primary = CompletableFuture.supplyAsync(call, executor);
+        } catch (RejectedExecutionException e) {
+            return call.get();
+        }
+        primary.whenComplete((value, error) -> timerPrimeiraTentativa.record(System.nanoTime() - start, TimeUnit.NANOSECONDS));
+
+        try {
+            return primary.get(delayNanos, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            // sem resposta dentro do atraso: hedge, se houver orçamento
+        } catch (ExecutionException | InterruptedException e) {
+            throw unwrap(e);
+        }
+
+        if (!withdraw()) {
+            counterHedgesSemOrcamento.increment();
+            return join(primary);
+        }
+        final CompletableFuture<T> hedge;
+        try {
+            hedge = CompletableFuture.supplyAsync(call, executor);
+        } catch (RejectedExecutionException e) {
+            balance.addAndGet(HEDGE);
+            return join(primary);
+        }
+        counterHedges.increment();
+
+        // a primeira resposta com sucesso vence; erro só se as duas tentativas falharem.
+        // o hedge vencedor é contado antes de liberar quem chamou
+        final CompletableFuture<T> first = new CompletableFuture<>();
+        final AtomicBoolean answered = new AtomicBoolean();
+        final AtomicInteger failures = new AtomicInteger();
+        primary.whenComplete((value, error) -> {
+            if (error == null) {
+                if (answered.compareAndSet(false, true)) {
+                    first.complete(value);
+                }
+            } else if (failures.incrementAndGet() == 2) {
+                first.completeExceptionally(error);
+            }
+        });
+        hedge.whenComplete((value, error) -> {
+            if (error == null) {
+                if (answered.compareAndSet(false, true)) {
+                    counterHedgesVencedores.increment();
+                    first.complete(value);
+                }
+            } else if (failures.incrementAndGet() == 2) {
+                first.completeExceptionally(error);
+            }
+        });
+        return join(first);
+    }
+
+    // percentil recente da primeira tentativa; sem amostras fica o atraso mínimo
+    @Scheduled(fixedDelayString = "${api.products.hedging.delay-refresh:PT1S}")
+    void updateDelay() {
+        if (!enabled) {
+            return;
+        }
+        final ValueAtPercentile[] percentiles = timerPrimeiraTentativa.takeSnapshot().percentileValues();
+        final long observed = percentiles.length == 0 ? 0 : (long) percentiles[0].value(TimeUnit.NANOSECONDS);
+        delayNanos = Math.max(minDelayNanos, observed);
+    }
+
+    long delayNanos() {
+        return delayNanos;
+    }
+
+    private boolean withdraw() {
+        long current;
+        do {
+            current = balance.get();
+            if (current < HEDGE) {
+                return false;
+            }
+        } while (!balance.compareAndSet(current, current - HEDGE));
+        return true;
+    }
+
+    private static <T> T join(final CompletableFuture<T> future) {
+        try {
+            return future.get();
+        } catch (ExecutionException | InterruptedException e) {
+            throw unwrap(e);
+        }
+    }
+
+    private static RuntimeException unwrap(final Exception e) {
+        if (e instanceof InterruptedException) {
+            Thread.currentThread().interrupt();
+            return new IllegalStateException(e);
+        }
+        if (e.getCause() instanceof RuntimeException cause) {
+            return cause;
+        }
+        return new IllegalStateException(e.getCause());
+    }
+
+    @PreDestroy
+    void shutdown() {
+        threadPool.shutdown();
+    }
+}
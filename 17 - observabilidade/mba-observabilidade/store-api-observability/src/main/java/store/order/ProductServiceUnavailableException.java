@@ -0,0 +1,10 @@
+package store.order;
+
+import org.springframework.web.client.RestClientException;
+
+public class ProductServiceUnavailableException extends RestClientException {
+
+	ProductServiceUnavailableException(String message, Throwable cause) {
+		super(message, cause);
+	}
+}
@@ -0,0 +1,88 @@
+package store.order;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.hateoas.MediaTypes;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+import store.config.BinaryMediaTypeConfig;
+import store.product.Product;
+import store.product.ProductChanges;
+import store.product.ProductSnapshot;
+
+// as URLs são passadas como template ({id}, {ids}) para manter baixa a cardinalidade da
+// tag uri nas métricas http.client.requests.
+// com api.products.binary (padrão) as respostas vêm em Smile, sem links HAL; sem ele, em HAL+JSON.
+// todas as chamadas passam pelo ProductsServiceGuard (bulkhead e circuit breaker); as buscas em lote,
+// que ficam no caminho das requisições de pedidos, podem ter hedge (ProductRequestHedger)
+@Component
+@RequiredArgsConstructor
+class ProductsClient {
+
+    private final RestTemplate restTemplate;
+    private final ProductsServiceGuard guard;
+    private final ProductRequestHedger hedger;
+
+    @Value("${api.products.endpoint.url}")
+    private String apiProdutsEndpointUrl;
+
+    @Value("${api.products.binary:true}")
+    private boolean binary;
+
+    Product fetch(final Long id) {
+        return fetchIfModified(id, null).getBody();
+    }
+
+    // GET condicional: 304 sem corpo enquanto o produto tiver a mesma ETag
+    ResponseEntity<Product> fetchIfModified(final Long id, final String etag) {
+        final HttpHeaders headers = headers();
+        if (etag != null) {
+            headers.setIfNoneMatch(etag);
+        }
+        return guard.call(() -> restTemplate.exchange(
+                apiProdutsEndpointUrl + "/{id}", HttpMethod.GET, new HttpEntity<>(headers), Product.class, id));
+    }
+
+    List<Product> fetchAll(final Collection<Long> ids) {
+        final String joinedIds = ids.stream().map(String::valueOf).collect(Collectors.joining(","));
+        return hedger.call(() -> requestAll(joinedIds));
+    }
+
+    private List<Product> requestAll(final String joinedIds) {
+        if (binary) {
+            final Product[] products = get(apiProdutsEndpointUrl + "?ids={ids}", Product[].class, joinedIds);
+            return products == null ? List.of() : Arrays.asList(products);
+        }
+        final ProductsResponse response = get(apiProdutsEndpointUrl + "?ids={ids}", ProductsResponse.class, joinedIds);
+        return response == null ? List.of() : response.products();
+    }
+
+    ProductSnapshot snapshot() {
+        return get(apiProdutsEndpointUrl + "/snapshot", ProductSnapshot.class);
+    }
+
+    ProductChanges changesSince(final long version) {
+        return get(apiProdutsEndpointUrl + "/changes?since={since}", ProductChanges.class, version);
+    }
+
+    private <T> T get(final String url, final Class<T> type, final Object... uriVariables) {
+        return guard.call(() -> restTemplate
+                .exchange(url, HttpMethod.GET, new HttpEntity<>(headers()), type, uriVariables)
+                .getBody());
+    }
+
+    private HttpHeaders headers() {
+        final HttpHeaders headers = new HttpHeaders();
+        headers.setAccept(List.of(binary ? BinaryMediaTypeConfig.APPLICATION_SMILE : MediaTypes.HAL_JSON));
+        return headers;
+    }
+}
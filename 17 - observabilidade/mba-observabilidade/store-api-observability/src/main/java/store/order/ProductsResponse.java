@@ -0,0 +1,24 @@
+package store.order;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import store.product.Product;
+
+/**
+ * HAL collection returned by {@code GET /products?ids=...}; the embedded relation name is
+ * ignored so the client does not depend on how the product service names it.
+ */
+record ProductsResponse(@JsonProperty("_embedded") Map<String, List<Product>> embedded) {
+
+	List<Product> products() {
+		if (embedded == null) {
+			return List.of();
+		}
+		return embedded.values().stream()
+				.flatMap(Collection::stream)
+				.toList();
+	}
+}
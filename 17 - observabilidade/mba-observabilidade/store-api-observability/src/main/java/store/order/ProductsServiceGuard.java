@@ -0,0 +1,118 @@
+package store.order;
+
+import java.util.Locale;
+import java.util.function.Supplier;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+import store.config.ProductsResilienceProperties;
+
+/**
+ * Every call of {@link ProductsClient} goes through a circuit breaker and then a bulkhead:
+ * <ul>
+ *     <li>the bulkhead caps the concurrent calls, so a slow product service holds at most
+ *     {@code api.products.resilience.bulkhead.max-concurrent-calls} request threads;</li>
+ *     <li>the circuit breaker opens when too many of the recent calls fail or are slow, and then
+ *     rejects calls without touching the network until it lets a few probe calls through.</li>
+ * </ul>
+ * Rejected calls, I/O errors and 5xx responses surface as {@link ProductServiceUnavailableException};
+ * 4xx responses are not counted against the product service and propagate unchanged.
+ */
+@Slf4j
+@Component
+class ProductsServiceGuard {
+
+    private static final String NAME = "products";
+
+    private final CircuitBreaker circuitBreaker;
+    private final Bulkhead bulkhead;
+
+    final Counter counterRejeitadasCircuito;
+    final Counter counterRejeitadasBulkhead;
+
+    ProductsServiceGuard(ProductsResilienceProperties properties, MeterRegistry meterRegistry) {
+
+        final ProductsResilienceProperties.CircuitBreaker breaker = properties.circuitBreaker();
+        this.circuitBreaker = CircuitBreaker.of(NAME, CircuitBreakerConfig.custom()
+                .slidingWindowType(CircuitBreakerConfig.SlidingWindowType.COUNT_BASED)
+                .slidingWindowSize(breaker.slidingWindowSize())
+                .minimumNumberOfCalls(breaker.minimumCalls())
+                .failureRateThreshold(breaker.failureRateThreshold())
+                .slowCallDurationThreshold(breaker.slowCallThreshold())
+                .slowCallRateThreshold(breaker.slowCallRateThreshold())
+                .waitDurationInOpenState(breaker.waitInOpenState())
+                .permittedNumberOfCallsInHalfOpenState(breaker.halfOpenCalls())
+                // produto inexistente não é falha do serviço; bulkhead cheio é um limite local
+                .ignoreExceptions(HttpClientErrorException.class, BulkheadFullException.class)
+                .build());
+
+        this.bulkhead = Bulkhead.of(NAME, BulkheadConfig.custom()
+                .maxConcurrentCalls(properties.bulkhead().maxConcurrentCalls())
+                .maxWaitDuration(properties.bulkhead().maxWait())
+                .build());
+
+        circuitBreaker.getEventPublisher().onStateTransition(event -> {
+            final CircuitBreaker.StateTransition transition = event.getStateTransition();
+            log.warn("product service circuit breaker: {} -> {}", transition.getFromState(), transition.getToState());
+            Counter.builder("app_custom_products_circuit_breaker_transitions")
+                    .description("mudanças de estado do circuit breaker das chamadas ao serviço de produtos")
+                    .tag("from", stateName(transition.getFromState()))
+                    .tag("to", stateName(transition.getToState()))
+                    .register(meterRegistry)
+                    .increment();
+        });
+
+        Gauge.builder("app_custom_products_circuit_breaker_state", circuitBreaker, cb -> cb.getState().getOrder())
+                .description("estado do circuit breaker do serviço de produtos: 0 fechado, 1 aberto, 2 meio aberto")
+                .register(meterRegistry);
+
+        Gauge.builder("app_custom_products_bulkhead_available_calls", bulkhead,
+                        b -> b.getMetrics().getAvailableConcurrentCalls())
+                .description("chamadas simultâneas ainda permitidas ao serviço de produtos")
+                .register(meterRegistry);
+
+        this.counterRejeitadasCircuito = rejections(meterRegistry, "circuit_breaker_open");
+        this.counterRejeitadasBulkhead = rejections(meterRegistry, "bulkhead_full");
+    }
+
+    private static Counter rejections(final MeterRegistry meterRegistry, final String reason) {
+        return Counter.builder("app_custom_products_calls_rejected")
+                .description("chamadas ao serviço de produtos rejeitadas sem acesso à rede")
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+
+    private static String stateName(final CircuitBreaker.State state) {
+        return state.name().toLowerCase(Locale.ROOT);
+    }
+
+    <T> T call(final Supplier<T> call) {
+        try {
+            return circuitBreaker.executeSupplier(Bulkhead.decorateSupplier(bulkhead, call));
+        } catch (CallNotPermittedException e) {
+            counterRejeitadasCircuito.increment();
+            throw new ProductServiceUnavailableException("Calls to the product service are suspended (circuit breaker open)", e);
+        } catch (BulkheadFullException e) {
+            counterRejeitadasBulkhead.increment();
+            throw new ProductServiceUnavailableException("Too many concurrent calls to the product service", e);
+        } catch (ResourceAccessException | HttpServerErrorException e) {
+            throw new ProductServiceUnavailableException("Product service call failed: " + e.getMessage(), e);
+        }
+    }
+
+    CircuitBreaker.State state() {
+        return circuitBreaker.getState();
+    }
+}
@@ -1,18 +1,21 @@
 package store.product;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import store.Money;
+import store.MoneyConverter;
 
-import java.math.BigDecimal;
 import java.util.Set;
 
 @Entity
 @Table(name = "products")
 @Data
-@Builder
+@Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
 public class Product {
@@ -27,9 +30,20 @@ public class Product {
 
     private String description;
 
-    private BigDecimal price;
+    @Convert(converter = MoneyConverter.class)
+    private Money price;
 
     private Float rating;
 
     private String brand;
+
+    // incrementada a cada atualização; é a ETag de GET /products/{id} (fora do JSON)
+    @Version
+    @JsonIgnore
+    private Long version;
+
+    // cópia antiga servida pelo serviço de pedidos com o serviço de produtos indisponível
+    @Transient
+    @JsonInclude(JsonInclude.Include.NON_DEFAULT)
+    private boolean stale;
 }
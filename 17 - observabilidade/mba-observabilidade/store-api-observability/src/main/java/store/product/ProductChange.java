@@ -0,0 +1,34 @@
+package store.product;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * One entry of the product change log: the product with this id was created, changed or removed.
+ * The version is a global, increasing sequence that replicas use to ask for changes since the
+ * last one they applied.
+ */
+@Entity
+@Table(name = "product_changes")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductChange {
+
+    // allocationSize 1: as versões seguem a ordem de gravação, sem blocos reservados por instância
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "product_changes_seq")
+    @SequenceGenerator(name = "product_changes_seq", sequenceName = "product_changes_seq", allocationSize = 1)
+    private Long version;
+
+    @Column(name = "product_id", nullable = false)
+    private Long productId;
+
+    private Instant changedAt;
+}
@@ -0,0 +1,81 @@
+package store.product;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Records every {@link ProductChangedEvent} in the change log and serves it to catalog replicas
+ * as a snapshot plus deltas. Events are published inside the transaction of the product write, so
+ * the log entry commits or rolls back with the change. The log keeps only ids: a delta carries the products as they are
+ * when it is read, so applying the same change twice is harmless.
+ */
+@Slf4j
+@Component
+class ProductChangeLog {
+
+    private final ProductRepository productRepository;
+    private final ProductChangeRepository changeRepository;
+    private final int maxChanges;
+
+    ProductChangeLog(
+            ProductRepository productRepository,
+            ProductChangeRepository changeRepository,
+            @Value("${app.products.changes.max-size:1000}") int maxChanges) {
+        this.productRepository = productRepository;
+        this.changeRepository = changeRepository;
+        this.maxChanges = Math.max(1, maxChanges);
+    }
+
+    // listener síncrono: participa da transação aberta por quem publicou o evento
+    @EventListener
+    @Transactional(propagation = Propagation.MANDATORY)
+    void onProductChanged(final ProductChangedEvent event) {
+        final ProductChange change = changeRepository.save(ProductChange.builder()
+                .productId(event.id())
+                .changedAt(Instant.now())
+                .build());
+        log.debug("product {} changed, version {}", event.id(), change.getVersion());
+    }
+
+    // ETag da coleção: muda a cada alteração registrada; a contagem cobre gravações fora do log
+    // (ex.: a carga inicial do profile h2)
+    String catalogTag() {
+        return "\"" + changeRepository.currentVersion() + "-" + productRepository.count() + "\"";
+    }
+
+    ProductSnapshot snapshot() {
+        // versão lida antes dos produtos: uma alteração concorrente pode já estar no snapshot e
+        // ainda assim voltar no próximo delta, o que é inofensivo
+        final long version = changeRepository.currentVersion();
+        return new ProductSnapshot(version, productRepository.findAll());
+    }
+
+    ProductChanges changesSince(final long version) {
+        final List<ProductChange> changes = changeRepository.findByVersionGreaterThanOrderByVersion(
+                version, PageRequest.of(0, maxChanges));
+        if (changes.isEmpty()) {
+            return new ProductChanges(changeRepository.currentVersion(), List.of(), List.of(), false);
+        }
+
+        final Set<Long> ids = new LinkedHashSet<>();
+        changes.forEach(change -> ids.add(change.getProductId()));
+
+        final List<Product> changed = productRepository.findAllById(ids);
+        changed.forEach(product -> ids.remove(product.getId()));
+        final List<Long> removed = new ArrayList<>(ids);
+
+        return new ProductChanges(changes.get(changes.size() - 1).getVersion(), changed, removed,
+                changes.size() == maxChanges);
+    }
+}
@@ -0,0 +1,15 @@
+package store.product;
+
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+public interface ProductChangeRepository extends JpaRepository<ProductChange, Long> {
+
+    List<ProductChange> findByVersionGreaterThanOrderByVersion(long version, Pageable pageable);
+
+    @Query("select coalesce(max(c.version), 0) from ProductChange c")
+    long currentVersion();
+}
@@ -0,0 +1,8 @@
+package store.product;
+
+/**
+ * Published whenever a product is created, changed or removed, so in-process consumers
+ * (e.g. the order service cache) can drop their copy.
+ */
+public record ProductChangedEvent(Long id) {
+}
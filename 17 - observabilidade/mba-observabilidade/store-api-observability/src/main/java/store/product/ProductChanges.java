@@ -0,0 +1,13 @@
+package store.product;
+
+import java.util.List;
+
+/**
+ * Changes after the version a replica asked for, up to {@code version}: the current state of the
+ * products that were created or changed and the ids of those that were removed. When
+ * {@code hasMore} is set the page was full and the replica should ask again from {@code version}.
+ * With no changes, {@code version} is the current version of the log, which is lower than the
+ * one asked for if the log was reset (e.g. the product database was recreated).
+ */
+public record ProductChanges(long version, List<Product> changed, List<Long> removed, boolean hasMore) {
+}
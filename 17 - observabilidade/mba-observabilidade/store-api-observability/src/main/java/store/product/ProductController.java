@@ -1,13 +1,27 @@
 package store.product;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.hateoas.CollectionModel;
 import org.springframework.hateoas.EntityModel;
 import org.springframework.hateoas.IanaLinkRelations;
+import org.springframework.hateoas.PagedModel;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import store.config.BinaryMediaTypeConfig;
+import store.config.StreamingExport;
 
+import java.time.Duration;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -20,40 +34,172 @@ public class ProductController {
 
     private final ProductRepository repository;
     private final ProductModelAssembler assembler;
+    private final ApplicationEventPublisher eventPublisher;
+    private final StreamingExport streamingExport;
+    private final ProductChangeLog changeLog;
 
+    @Value("${app.products.max-page-size:500}")
+    private int maxPageSize;
+
+    @Value("${app.products.cache-control.max-age:30s}")
+    private Duration cacheMaxAge;
 
     @GetMapping("/products")
-    public CollectionModel<EntityModel<Product>> all() {
+    public ResponseEntity<CollectionModel<EntityModel<Product>>> all(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+
+        // a ETag vem do log de alterações: se o cliente já tem esta versão, 304 sem carregar os produtos
+        String etag = changeLog.catalogTag();
+        if (matches(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(cacheControl()).build();
+        }
 
         List<EntityModel<Product>> products = repository.findAll().stream()
                 .map(assembler::toModel)
                 .collect(Collectors.toList());
 
-        return CollectionModel.of(products, linkTo(methodOn(ProductController.class).all()).withSelfRel());
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(cacheControl())
+                .body(CollectionModel.of(products, linkTo(methodOn(ProductController.class).all(null)).withSelfRel()));
+    }
+
+    @GetMapping(value = "/products", params = "page")
+    public PagedModel<EntityModel<Product>> allPaged(
+            @RequestParam Integer page,
+            @RequestParam(defaultValue = "100") Integer size) {
+
+        Page<Product> products = repository.findAll(
+                PageRequest.of(Math.max(0, page), Math.max(1, Math.min(size, maxPageSize)), Sort.by("id")));
+
+        PagedModel<EntityModel<Product>> productsModel = PagedModel.of(
+                products.map(assembler::toModel).getContent(),
+                new PagedModel.PageMetadata(products.getSize(), products.getNumber(),
+                        products.getTotalElements(), products.getTotalPages()),
+                linkTo(methodOn(ProductController.class).allPaged(products.getNumber(), products.getSize())).withSelfRel());
+
+        if (products.hasNext()) {
+            productsModel.add(linkTo(methodOn(ProductController.class).allPaged(products.getNumber() + 1, products.getSize()))
+                    .withRel(IanaLinkRelations.NEXT));
+        }
+        if (products.hasPrevious()) {
+            productsModel.add(linkTo(methodOn(ProductController.class).allPaged(products.getNumber() - 1, products.getSize()))
+                    .withRel(IanaLinkRelations.PREV));
+        }
+
+        return productsModel;
+    }
+
+    // exportação completa do catálogo em streaming: ndjson (padrão) ou json (array)
+    @GetMapping("/products/export")
+    public ResponseEntity<StreamingResponseBody> export(@RequestParam(defaultValue = "ndjson") String format) {
+        return streamingExport.export(format, repository::streamAll);
+    }
+
+    // réplicas do catálogo (serviço de pedidos): carga inicial e alterações desde uma versão
+    @GetMapping("/products/snapshot")
+    public ProductSnapshot snapshot() {
+        return changeLog.snapshot();
+    }
+
+    @GetMapping("/products/changes")
+    public ProductChanges changes(@RequestParam long since) {
+        return changeLog.changesSince(since);
+    }
+
+    @GetMapping(value = "/products", params = "ids")
+    public CollectionModel<EntityModel<Product>> allById(@RequestParam List<Long> ids) {
+
+        List<EntityModel<Product>> products = repository.findAllById(ids).stream()
+                .map(assembler::toModel)
+                .collect(Collectors.toList());
+
+        return CollectionModel.of(products, linkTo(methodOn(ProductController.class).allById(ids)).withSelfRel());
     }
 
+    // chamadas internas (serviço de pedidos) em Smile: só os produtos, sem os links HAL
+    @GetMapping(value = "/products", params = "ids", produces = BinaryMediaTypeConfig.APPLICATION_SMILE_VALUE)
+    public List<Product> allByIdCompact(@RequestParam List<Long> ids) {
+        return repository.findAllById(ids);
+    }
+
+    // gravação e registro no log de alterações (ProductChangeLog) na mesma transação
     @PostMapping("/products")
+    @Transactional
     public ResponseEntity<?> newProduct(@RequestBody Product product) {
 
-        EntityModel<Product> entityModel = assembler.toModel(repository.save(product));
+        // com id existente é uma atualização: a versão (fora do JSON) vem do banco; id desconhecido vira inclusão
+        if (product.getId() != null) {
+            repository.findById(product.getId()).ifPresentOrElse(
+                    current -> product.setVersion(current.getVersion()),
+                    () -> product.setId(null));
+        }
+
+        Product saved = repository.save(product);
+        eventPublisher.publishEvent(new ProductChangedEvent(saved.getId()));
+
+        EntityModel<Product> entityModel = assembler.toModel(saved);
 
         return ResponseEntity.created(entityModel.getRequiredLink(IanaLinkRelations.SELF).toUri()).body(entityModel);
     }
 
+    // com If-None-Match igual à ETag o Spring responde 304 sem serializar o corpo. HAL+JSON e Smile
+    // têm ETags distintas e Vary: Accept, para um cache não trocar uma representação pela outra
     @GetMapping("/products/{id}")
-    public EntityModel<Product> one(@PathVariable Long id) {
+    public ResponseEntity<EntityModel<Product>> one(@PathVariable Long id) {
+
+        Product product = repository.findById(id) //
+                .orElseThrow(() -> new ProductNotFoundException(id));
+
+        return ResponseEntity.ok()
+                .eTag(etag(product, ""))
+                .varyBy(HttpHeaders.ACCEPT)
+                .cacheControl(cacheControl())
+                .body(assembler.toModel(product));
+    }
+
+    @GetMapping(value = "/products/{id}", produces = BinaryMediaTypeConfig.APPLICATION_SMILE_VALUE)
+    public ResponseEntity<Product> oneCompact(@PathVariable Long id) {
 
         Product product = repository.findById(id) //
                 .orElseThrow(() -> new ProductNotFoundException(id));
 
-        return assembler.toModel(product);
+        return ResponseEntity.ok()
+                .eTag(etag(product, "-smile"))
+                .varyBy(HttpHeaders.ACCEPT)
+                .cacheControl(cacheControl())
+                .body(product);
     }
 
     @DeleteMapping("/products/{id}")
+    @Transactional
     public ResponseEntity<?> deleteProduct(@PathVariable Long id) {
 
         repository.deleteById(id);
+        eventPublisher.publishEvent(new ProductChangedEvent(id));
 
         return ResponseEntity.noContent().build();
     }
+
+    private static String etag(Product product, String representation) {
+        return "\"" + (product.getVersion() == null ? 0 : product.getVersion()) + representation + "\"";
+    }
+
+    private CacheControl cacheControl() {
+        return CacheControl.maxAge(cacheMaxAge);
+    }
+
+    // comparação fraca, como pede o If-None-Match: "*", lista de tags e prefixo W/
+    private static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*") || tag.equals(etag) || tag.equals("W/" + etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
 }
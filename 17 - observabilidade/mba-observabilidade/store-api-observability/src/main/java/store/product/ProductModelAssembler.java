@@ -1,23 +1,27 @@
 package store.product;
 
 import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.IanaLinkRelations;
 import org.springframework.hateoas.server.RepresentationModelAssembler;
 import org.springframework.stereotype.Component;
+import store.config.LinkTemplate;
 
-import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
 import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
 
 @Component
 public class ProductModelAssembler implements RepresentationModelAssembler<Product, EntityModel<Product>> {
 
+	private final LinkTemplate oneLink = LinkTemplate.withId(id -> methodOn(ProductController.class).one(id));
+	private final LinkTemplate allLink = LinkTemplate.of(methodOn(ProductController.class).all(null));
+
 	@Override
 	public EntityModel<Product> toModel(Product product) {
 
 		// Unconditional links to single-item resource and aggregate root
 
 		EntityModel<Product> productModel = EntityModel.of(product,
-				linkTo(methodOn(ProductController.class).one(product.getId())).withSelfRel(),
-				linkTo(methodOn(ProductController.class).all()).withRel("products"));
+				oneLink.toLink(product.getId(), IanaLinkRelations.SELF),
+				allLink.toLink("products"));
 
 		return productModel;
 	}
@@ -1,6 +1,17 @@
 package store.product;
 
+import java.util.stream.Stream;
+
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
 public interface ProductRepository extends JpaRepository<Product, Long> {
+
+    // leitura em streaming para exportação, buscando 500 linhas por vez do banco
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("select p from Product p order by p.id")
+    Stream<Product> streamAll();
 }
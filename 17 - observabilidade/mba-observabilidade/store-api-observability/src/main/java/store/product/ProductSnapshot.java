@@ -0,0 +1,10 @@
+package store.product;
+
+import java.util.List;
+
+/**
+ * The whole catalog as of {@code version}: a replica loads it once and then follows
+ * {@link ProductChanges} from that version on.
+ */
+public record ProductSnapshot(long version, List<Product> products) {
+}
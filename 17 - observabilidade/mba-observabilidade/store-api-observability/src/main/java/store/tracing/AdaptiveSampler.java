@@ -0,0 +1,91 @@
+package store.tracing;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.SpanContext;
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.sdk.trace.data.LinkData;
+import io.opentelemetry.sdk.trace.samplers.Sampler;
+import io.opentelemetry.sdk.trace.samplers.SamplingDecision;
+import io.opentelemetry.sdk.trace.samplers.SamplingResult;
+
+/**
+ * Head sampler with a rate cap. Child spans follow their parent; a new trace is sampled when it
+ * falls in {@code probability} and fewer than {@code maxTracesPerSecond} traces were sampled in the
+ * current second. Traces that are not sampled are still recorded when tail sampling is on, so
+ * {@link TailSamplingSpanProcessor} can keep them if they turn out slow or failed.
+ */
+public class AdaptiveSampler implements Sampler {
+
+    private final Sampler probability;
+    private final int maxTracesPerSecond;
+    private final SamplingResult notSampled;
+
+    private final AtomicLong window = new AtomicLong();
+    private final AtomicLong sampledInWindow = new AtomicLong();
+
+    final Counter counterAmostrado;
+    final Counter counterLimitado;
+    final Counter counterDescartado;
+
+    public AdaptiveSampler(final MeterRegistry meterRegistry, final double probability,
+                           final int maxTracesPerSecond, final boolean recordForTailSampling) {
+        this.probability = Sampler.traceIdRatioBased(probability);
+        this.maxTracesPerSecond = maxTracesPerSecond;
+        this.notSampled = recordForTailSampling ? SamplingResult.recordOnly() : SamplingResult.drop();
+
+        this.counterAmostrado = decisions(meterRegistry, "sampled");
+        this.counterLimitado = decisions(meterRegistry, "rate_limited");
+        this.counterDescartado = decisions(meterRegistry, "not_sampled");
+    }
+
+    private static Counter decisions(final MeterRegistry meterRegistry, final String decision) {
+        return Counter.builder("app_custom_tracing_sampler_decisions")
+                .description("decisões do sampler para novos traces")
+                .tag("decision", decision)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public SamplingResult shouldSample(final Context parentContext, final String traceId, final String name,
+                                       final SpanKind spanKind, final Attributes attributes,
+                                       final List<LinkData> parentLinks) {
+        final SpanContext parent = Span.fromContext(parentContext).getSpanContext();
+        if (parent.isValid()) {
+            return parent.isSampled() ? SamplingResult.recordAndSample() : notSampled;
+        }
+
+        if (probability.shouldSample(parentContext, traceId, name, spanKind, attributes, parentLinks)
+                .getDecision() != SamplingDecision.RECORD_AND_SAMPLE) {
+            counterDescartado.increment();
+            return notSampled;
+        }
+        if (!tryAcquire()) {
+            counterLimitado.increment();
+            return notSampled;
+        }
+        counterAmostrado.increment();
+        return SamplingResult.recordAndSample();
+    }
+
+    private boolean tryAcquire() {
+        final long second = System.currentTimeMillis() / 1000;
+        final long current = window.get();
+        if (second != current && window.compareAndSet(current, second)) {
+            sampledInWindow.set(0);
+        }
+        return sampledInWindow.incrementAndGet() <= maxTracesPerSecond;
+    }
+
+    @Override
+    public String getDescription() {
+        return "AdaptiveSampler{probability=" + probability.getDescription()
+                + ", maxTracesPerSecond=" + maxTracesPerSecond + "}";
+    }
+}
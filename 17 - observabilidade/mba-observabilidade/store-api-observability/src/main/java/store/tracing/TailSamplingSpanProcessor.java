@@ -0,0 +1,194 @@
+package store.tracing;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.trace.SpanContext;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.api.trace.TraceFlags;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.trace.ReadWriteSpan;
+import io.opentelemetry.sdk.trace.ReadableSpan;
+import io.opentelemetry.sdk.trace.SpanProcessor;
+import io.opentelemetry.sdk.trace.data.DelegatingSpanData;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+
+/**
+ * In-process tail sampling for the traces the {@link AdaptiveSampler} did not sample. Their spans
+ * are recorded but not exported by the regular batch processor; they are kept here, per trace,
+ * until the local root span ends. The whole trace is then exported if it failed (a span with
+ * status ERROR) or its root took longer than {@code latencyThreshold}, and discarded otherwise.
+ * <p>
+ * The buffer holds at most {@code maxSpans} spans; when full, the oldest trace is evicted.
+ */
+public class TailSamplingSpanProcessor implements SpanProcessor {
+
+    private static final AttributeKey<String> OUTCOME = AttributeKey.stringKey("outcome");
+    private static final String SERVER_ERROR = "SERVER_ERROR";
+
+    private final SpanExporter exporter;
+    private final long latencyThresholdNanos;
+    private final int maxSpans;
+
+    private final Map<String, List<SpanData>> traces = new LinkedHashMap<>();
+    private int bufferedSpans;
+
+    final Counter counterMantidoErro;
+    final Counter counterMantidoLento;
+    final Counter counterDescartado;
+    final Counter counterEvictado;
+
+    public TailSamplingSpanProcessor(final SpanExporter exporter, final MeterRegistry meterRegistry,
+                                     final Duration latencyThreshold, final int maxSpans) {
+        this.exporter = exporter;
+        this.latencyThresholdNanos = latencyThreshold.toNanos();
+        this.maxSpans = maxSpans;
+
+        this.counterMantidoErro = decisions(meterRegistry, "kept_error");
+        this.counterMantidoLento = decisions(meterRegistry, "kept_slow");
+        this.counterDescartado = decisions(meterRegistry, "dropped");
+
+        this.counterEvictado = Counter.builder("app_custom_tracing_tail_buffer_evicted_spans")
+                .description("spans descartados por falta de espaço no buffer de tail sampling")
+                .register(meterRegistry);
+
+        Gauge.builder("app_custom_tracing_tail_buffer_spans", this, TailSamplingSpanProcessor::bufferedSpans)
+                .description("spans aguardando a decisão de tail sampling")
+                .register(meterRegistry);
+    }
+
+    private static Counter decisions(final MeterRegistry meterRegistry, final String decision) {
+        return Counter.builder("app_custom_tracing_tail_decisions")
+                .description("decisões de tail sampling ao fim do span raiz de traces não amostrados")
+                .tag("decision", decision)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public boolean isStartRequired() {
+        return false;
+    }
+
+    @Override
+    public void onStart(final Context parentContext, final ReadWriteSpan span) {
+    }
+
+    @Override
+    public boolean isEndRequired() {
+        return true;
+    }
+
+    @Override
+    public void onEnd(final ReadableSpan span) {
+        if (span.getSpanContext().isSampled()) {
+            return;
+        }
+
+        final SpanData data = span.toSpanData();
+        final String traceId = data.getTraceId();
+        final SpanContext parent = span.getParentSpanContext();
+        final boolean localRoot = !parent.isValid() || parent.isRemote();
+
+        final List<SpanData> trace;
+        synchronized (traces) {
+            if (!localRoot) {
+                traces.computeIfAbsent(traceId, id -> new ArrayList<>()).add(data);
+                bufferedSpans++;
+                evictOverflow();
+                return;
+            }
+            trace = traces.remove(traceId);
+            if (trace != null) {
+                bufferedSpans -= trace.size();
+            }
+        }
+
+        final List<SpanData> spans = trace == null ? new ArrayList<>(1) : trace;
+        spans.add(data);
+
+        if (failed(spans)) {
+            counterMantidoErro.increment();
+            export(spans);
+        } else if (span.getLatencyNanos() >= latencyThresholdNanos) {
+            counterMantidoLento.increment();
+            export(spans);
+        } else {
+            counterDescartado.increment();
+        }
+    }
+
+    private void evictOverflow() {
+        final Iterator<List<SpanData>> oldest = traces.values().iterator();
+        while (bufferedSpans > maxSpans && oldest.hasNext()) {
+            final int evicted = oldest.next().size();
+            oldest.remove();
+            bufferedSpans -= evicted;
+            counterEvictado.increment(evicted);
+        }
+    }
+
+    // span com status ERROR (exceção) ou requisição HTTP respondida com 5xx
+    private static boolean failed(final List<SpanData> spans) {
+        for (SpanData span : spans) {
+            if (span.getStatus().getStatusCode() == StatusCode.ERROR
+                    || SERVER_ERROR.equals(span.getAttributes().get(OUTCOME))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void export(final List<SpanData> spans) {
+        final List<SpanData> sampled = new ArrayList<>(spans.size());
+        for (SpanData span : spans) {
+            sampled.add(new Sampled(span));
+        }
+        exporter.export(sampled);
+    }
+
+    int bufferedSpans() {
+        synchronized (traces) {
+            return bufferedSpans;
+        }
+    }
+
+    // o exporter é compartilhado com o BatchSpanProcessor, que é quem o encerra
+    @Override
+    public CompletableResultCode shutdown() {
+        synchronized (traces) {
+            traces.clear();
+            bufferedSpans = 0;
+        }
+        return CompletableResultCode.ofSuccess();
+    }
+
+    /**
+     * Span kept by tail sampling, exported with the sampled flag the head decision did not set.
+     */
+    private static final class Sampled extends DelegatingSpanData {
+
+        private final SpanContext spanContext;
+
+        Sampled(final SpanData delegate) {
+            super(delegate);
+            final SpanContext original = delegate.getSpanContext();
+            this.spanContext = SpanContext.create(original.getTraceId(), original.getSpanId(),
+                    TraceFlags.getSampled(), original.getTraceState());
+        }
+
+        @Override
+        public SpanContext getSpanContext() {
+            return spanContext;
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package store.tracing;
+
+import java.time.Duration;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import io.opentelemetry.sdk.trace.samplers.Sampler;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Replaces the fixed-ratio sampler of the OpenTelemetry auto-configuration with
+ * {@link AdaptiveSampler} and, when {@code app.tracing.tail.enabled}, adds the
+ * {@link TailSamplingSpanProcessor} to the tracer provider.
+ */
+@Configuration(proxyBeanMethods = false)
+class TracingSamplingConfig {
+
+    @Bean
+    Sampler adaptiveSampler(
+            MeterRegistry meterRegistry,
+            @Value("${management.tracing.sampling.probability:0.1}") double probability,
+            @Value("${app.tracing.sampling.max-traces-per-second:10}") int maxTracesPerSecond,
+            @Value("${app.tracing.tail.enabled:true}") boolean tailSampling) {
+        return new AdaptiveSampler(meterRegistry, probability, maxTracesPerSecond, tailSampling);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "app.tracing.tail.enabled", havingValue = "true", matchIfMissing = true)
+    TailSamplingSpanProcessor tailSamplingSpanProcessor(
+            ObjectProvider<SpanExporter> spanExporters,
+            MeterRegistry meterRegistry,
+            @Value("${app.tracing.tail.latency-threshold:500ms}") Duration latencyThreshold,
+            @Value("${app.tracing.tail.max-spans:10000}") int maxSpans) {
+        return new TailSamplingSpanProcessor(SpanExporter.composite(spanExporters.orderedStream().toList()),
+                meterRegistry, latencyThreshold, maxSpans);
+    }
+}
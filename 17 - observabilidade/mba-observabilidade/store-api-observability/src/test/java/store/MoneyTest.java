@@ -0,0 +1,69 @@
+package store;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.math.BigDecimal;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.exc.InvalidFormatException;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.junit.jupiter.api.Test;
+import store.product.Product;
+
+class MoneyTest {
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+
+	@Test
+	void arithmeticIsExactAndOverflowChecked() {
+		assertThat(Money.of("19.99").times(3).plus(Money.of("0.03"))).isEqualTo(Money.of("60.00"));
+		assertThat(Utils.sum(Money.of("1999.99"), Money.of("109.99"))).isEqualTo(Money.ofCents(210998));
+
+		assertThatThrownBy(() -> Money.ofCents(Long.MAX_VALUE).plus(Money.ofCents(1)))
+				.isInstanceOf(ArithmeticException.class);
+		assertThatThrownBy(() -> Money.ofCents(Long.MAX_VALUE / 2).times(3))
+				.isInstanceOf(ArithmeticException.class);
+		assertThatThrownBy(() -> Money.of("9.999"))
+				.isInstanceOf(ArithmeticException.class);
+	}
+
+	@Test
+	void textAndDecimalKeepTwoDecimalPlaces() {
+		assertThat(Money.of("10")).hasToString("10.00");
+		assertThat(Money.ofCents(-5)).hasToString("-0.05");
+		assertThat(Money.ofCents(Long.MIN_VALUE)).hasToString("-92233720368547758.08");
+		assertThat(Money.of("109.99").toBigDecimal()).isEqualTo(new BigDecimal("109.99"));
+		assertThat(Money.of(new BigDecimal("9.990"))).isEqualTo(Money.ofCents(999));
+	}
+
+	@Test
+	void jsonIsAPlainNumber() throws Exception {
+		final Product product = Product.builder().id(1L).price(Money.of("1999.9")).build();
+
+		final String json = objectMapper.writeValueAsString(product);
+
+		assertThat(json).contains("\"price\":1999.90");
+		assertThat(objectMapper.readValue(json, Product.class).getPrice()).isEqualTo(Money.ofCents(199990));
+	}
+
+	@Test
+	void jsonAcceptsIntegersDecimalsAndStrings() throws Exception {
+		assertThat(objectMapper.readValue("10", Money.class)).isEqualTo(Money.ofCents(1000));
+		assertThat(objectMapper.readValue("109.99", Money.class)).isEqualTo(Money.ofCents(10999));
+		assertThat(objectMapper.readValue("\"0.5\"", Money.class)).isEqualTo(Money.ofCents(50));
+
+		assertThatThrownBy(() -> objectMapper.readValue("0.001", Money.class))
+				.isInstanceOf(InvalidFormatException.class);
+	}
+
+	@Test
+	void smileKeepsTheExactAmount() throws Exception {
+		final ObjectMapper smileMapper = new ObjectMapper(new SmileFactory());
+		final Product product = Product.builder().id(1L).price(Money.of("1999.99")).build();
+
+		final byte[] smile = smileMapper.writeValueAsBytes(product);
+
+		assertThat(smileMapper.readValue(smile, Product.class).getPrice()).isEqualTo(Money.ofCents(199999));
+	}
+}
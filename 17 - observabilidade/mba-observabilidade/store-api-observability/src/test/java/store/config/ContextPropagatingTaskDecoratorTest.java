@@ -0,0 +1,64 @@
+package store.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicReference;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+
+class ContextPropagatingTaskDecoratorTest {
+
+	private final ContextPropagatingTaskDecorator decorator = new ContextPropagatingTaskDecorator();
+	private final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+	@AfterEach
+	void tearDown() {
+		executor.shutdownNow();
+		MDC.clear();
+	}
+
+	@Test
+	void mdcAndObservationReachTheWorkerAndAreRemovedAfterwards() throws Exception {
+		final ObservationRegistry registry = ObservationRegistry.create();
+		registry.observationConfig().observationHandler(context -> true);
+		final Observation observation = Observation.start("request", registry);
+
+		final AtomicReference<Map<String, String>> mdcInTask = new AtomicReference<>();
+		final AtomicReference<Observation> observationInTask = new AtomicReference<>();
+
+		final Runnable task;
+		try (Observation.Scope scope = observation.openScope()) {
+			MDC.put("host", "localhost:8080");
+			task = decorator.decorate(() -> {
+				mdcInTask.set(MDC.getCopyOfContextMap());
+				observationInTask.set(registry.getCurrentObservation());
+			});
+		}
+		executor.submit(task).get();
+		final Future<Map<String, String>> mdcAfterTask = executor.submit(MDC::getCopyOfContextMap);
+
+		assertThat(mdcInTask.get()).containsEntry("host", "localhost:8080");
+		assertThat(observationInTask.get()).isSameAs(observation);
+		assertThat(mdcAfterTask.get()).isNullOrEmpty();
+	}
+
+	@Test
+	void callerMdcIsRestoredWhenTaskRunsOnTheCallerThread() {
+		MDC.put("host", "submitter");
+		final Runnable task = decorator.decorate(() -> MDC.put("host", "task"));
+
+		MDC.put("traceId", "caller");
+		task.run();
+
+		assertThat(MDC.get("traceId")).isEqualTo("caller");
+		assertThat(MDC.get("host")).isEqualTo("submitter");
+	}
+}
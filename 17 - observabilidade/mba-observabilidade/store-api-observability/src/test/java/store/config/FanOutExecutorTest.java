@@ -0,0 +1,100 @@
+package store.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class FanOutExecutorTest {
+
+	private final FanOutExecutor executor = new FanOutExecutor(new SimpleMeterRegistry(),
+			new ContextPropagatingTaskDecorator(), false, 4, 16, 2, Duration.ofMillis(200));
+
+	@AfterEach
+	void shutdown() {
+		executor.shutdown();
+	}
+
+	@Test
+	void resultsKeepTheInputOrder() {
+		assertThat(executor.invokeAll(List.of(1, 2, 3, 4, 5), i -> i * 10)).containsExactly(10, 20, 30, 40, 50);
+	}
+
+	@Test
+	void deadlineCoversEveryLane() {
+		final long start = System.nanoTime();
+
+		// a primeira entrada é a que a thread da requisição pegaria se executasse uma lane
+		assertThatThrownBy(() -> executor.invokeAll(List.of(1, 2), i -> sleep(i == 1 ? 2000 : 0)))
+				.isInstanceOf(FanOutDeadlineExceededException.class);
+
+		assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(1));
+		assertThat(executor.counterPrazoExcedido.count()).isEqualTo(1);
+	}
+
+	@Test
+	void deadlineCoversASingleInput() {
+		final long start = System.nanoTime();
+
+		assertThatThrownBy(() -> executor.invokeAll(List.of(1), i -> sleep(2000)))
+				.isInstanceOf(FanOutDeadlineExceededException.class);
+
+		assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(1));
+	}
+
+	@Test
+	void saturatedExecutorRejectsInsteadOfRunningOnTheCaller() throws Exception {
+		// 1 thread e 1 vaga na fila: a primeira chamada ocupa a thread, a segunda a fila
+		final FanOutExecutor saturated = new FanOutExecutor(new SimpleMeterRegistry(),
+				new ContextPropagatingTaskDecorator(), false, 1, 1, 2, Duration.ofSeconds(2));
+		final CountDownLatch running = new CountDownLatch(1);
+		final CountDownLatch release = new CountDownLatch(1);
+		try {
+			final CompletableFuture<?> busy = CompletableFuture.runAsync(() -> saturated.invokeAll(List.of(1),
+					i -> {
+						running.countDown();
+						return await(release);
+					}));
+			assertThat(running.await(1, TimeUnit.SECONDS)).isTrue();
+			final CompletableFuture<?> queued = CompletableFuture.runAsync(() -> saturated.invokeAll(List.of(2), i -> i));
+			Thread.sleep(100);
+
+			assertThatThrownBy(() -> saturated.invokeAll(List.of(3), i -> i))
+					.isInstanceOf(FanOutRejectedException.class);
+			assertThat(saturated.counterRejeitadas.count()).isEqualTo(1);
+
+			release.countDown();
+			busy.get(1, TimeUnit.SECONDS);
+			queued.get(1, TimeUnit.SECONDS);
+		} finally {
+			release.countDown();
+			saturated.shutdown();
+		}
+	}
+
+	private static int await(final CountDownLatch latch) {
+		try {
+			latch.await();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		return 0;
+	}
+
+	private static int sleep(final long millis) {
+		try {
+			Thread.sleep(millis);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		return 0;
+	}
+}
@@ -0,0 +1,97 @@
+package store.logging;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.LoggingEvent;
+import ch.qos.logback.classic.util.LogbackMDCAdapter;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class CompactJsonEncoderTest {
+
+	private final LoggerContext context = new LoggerContext();
+	private final Logger logger = context.getLogger("store.order.OrderController");
+	private final CompactJsonEncoder encoder = new CompactJsonEncoder();
+	private final ObjectMapper objectMapper = new ObjectMapper();
+
+	@BeforeEach
+	void setUp() {
+		context.setMDCAdapter(new LogbackMDCAdapter());
+		encoder.setContext(context);
+		encoder.setAppName("store-api");
+		encoder.setAppVersion("0.0.2");
+		encoder.start();
+	}
+
+	@Test
+	void writesFixedFieldSet() throws Exception {
+		final LoggingEvent event = event(Level.INFO, "pedido \"çã\" \n {}", "€");
+		event.setTimeStamp(1714564800123L);
+
+		final byte[] encoded = encoder.encode(event);
+		final JsonNode json = objectMapper.readTree(encoded);
+
+		assertThat(new String(encoded, StandardCharsets.UTF_8)).endsWith("}\n");
+		assertThat(json.get("ts").asText()).isEqualTo("2024-05-01T12:00:00.123Z");
+		assertThat(json.get("level").asText()).isEqualTo("INFO");
+		assertThat(json.get("logger").asText()).isEqualTo("store.order.OrderController");
+		assertThat(json.get("thread").asText()).isEqualTo(Thread.currentThread().getName());
+		assertThat(json.get("traceId").asText()).isEqualTo("abc123");
+		assertThat(json.get("host").asText()).isEqualTo("localhost:8080");
+		assertThat(json.get("app").asText()).isEqualTo("store-api");
+		assertThat(json.get("version").asText()).isEqualTo("0.0.2");
+		assertThat(json.get("msg").asText()).isEqualTo("pedido \"çã\" \n €");
+		assertThat(json.has("caller")).isFalse();
+		assertThat(json.has("stack")).isFalse();
+	}
+
+	@Test
+	void writesCallerDataOnlyForWarnAndAbove() throws Exception {
+		final LoggingEvent info = event(Level.INFO, "info");
+		info.getCallerData();
+		final LoggingEvent warn = event(Level.WARN, "warn");
+		warn.getCallerData();
+
+		assertThat(objectMapper.readTree(encoder.encode(info)).has("caller")).isFalse();
+		assertThat(objectMapper.readTree(encoder.encode(warn)).get("caller").asText())
+				.startsWith(CompactJsonEncoderTest.class.getName());
+	}
+
+	@Test
+	void writesStackTraceOfThrowable() throws Exception {
+		final LoggingEvent event = new LoggingEvent(Logger.class.getName(), logger, Level.ERROR, "failed",
+				new IllegalStateException("boom"), null);
+
+		final JsonNode json = objectMapper.readTree(encoder.encode(event));
+
+		assertThat(json.get("stack").asText()).contains("java.lang.IllegalStateException: boom");
+	}
+
+	@Test
+	void eventWithoutMdcHasEmptyTraceIdAndHost() throws Exception {
+		final LoggerContext withoutMdcAdapter = new LoggerContext();
+		final LoggingEvent event = new LoggingEvent(Logger.class.getName(), withoutMdcAdapter.getLogger("store.test"),
+				Level.INFO, "no mdc", null, null);
+
+		final JsonNode json = objectMapper.readTree(encoder.encode(event));
+
+		assertThat(json.get("traceId").asText()).isEmpty();
+		assertThat(json.get("host").asText()).isEmpty();
+		assertThat(json.get("msg").asText()).isEqualTo("no mdc");
+	}
+
+	// fqcn LoggingEvent: o caller data aponta para o teste que chamou getCallerData()
+	private LoggingEvent event(final Level level, final String message, final Object... arguments) {
+		final LoggingEvent event = new LoggingEvent(LoggingEvent.class.getName(), logger, level, message, null, arguments);
+		event.setMDCPropertyMap(Map.of("traceId", "abc123", "host", "localhost:8080"));
+		return event;
+	}
+}
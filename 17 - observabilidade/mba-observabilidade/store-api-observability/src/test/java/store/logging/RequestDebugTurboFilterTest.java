@@ -0,0 +1,76 @@
+package store.logging;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+
+class RequestDebugTurboFilterTest {
+
+	private final LoggerContext context = new LoggerContext();
+	private final RequestDebugTurboFilter filter = new RequestDebugTurboFilter();
+	private final ListAppender<ILoggingEvent> events = new ListAppender<>();
+
+	private Logger logger;
+
+	@BeforeEach
+	void setUp() {
+		filter.setContext(context);
+		filter.setEventsPerSecond(3);
+		filter.start();
+		context.addTurboFilter(filter);
+
+		events.setContext(context);
+		events.start();
+
+		logger = context.getLogger("store.order.OrderController");
+		logger.setLevel(Level.INFO);
+		logger.addAppender(events);
+	}
+
+	@AfterEach
+	void tearDown() {
+		MDC.clear();
+	}
+
+	@Test
+	void debugIsOffForUnflaggedRequests() {
+		logger.debug("hidden");
+		logger.info("visible");
+
+		assertThat(events.list).extracting(ILoggingEvent::getMessage).containsExactly("visible");
+	}
+
+	@Test
+	void debugIsOnForFlaggedRequestsUpToTheRateLimit() {
+		MDC.put("debug", "true");
+
+		for (int i = 0; i < 10; i++) {
+			logger.debug("debug {}", i);
+		}
+
+		assertThat(events.list).hasSizeBetween(3, 6);
+		assertThat(filter.limited()).isGreaterThanOrEqualTo(4);
+	}
+
+	@Test
+	void otherLoggersAndDisabledSwitchKeepTheirLevel() {
+		MDC.put("debug", "true");
+		final Logger framework = context.getLogger("org.springframework.web");
+		framework.setLevel(Level.INFO);
+		framework.addAppender(events);
+
+		framework.debug("framework");
+		filter.setEnabled(false);
+		logger.debug("disabled");
+
+		assertThat(events.list).isEmpty();
+	}
+}
@@ -0,0 +1,150 @@
+package store.logging;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.spi.LoggingEvent;
+import ch.qos.logback.classic.util.LogbackMDCAdapter;
+import ch.qos.logback.core.AppenderBase;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class RingBufferAsyncAppenderTest {
+
+	private final LoggerContext context = new LoggerContext();
+	private final BlockingAppender delegate = new BlockingAppender();
+	private final RingBufferAsyncAppender appender = new RingBufferAsyncAppender();
+
+	@BeforeEach
+	void setUp() {
+		// prepareForDeferredProcessing() copia o MDC: o contexto precisa de um adapter
+		context.setMDCAdapter(new LogbackMDCAdapter());
+		delegate.setContext(context);
+		delegate.start();
+
+		appender.setContext(context);
+		appender.setName("async-test");
+		appender.setCapacity(8);
+		appender.setDiscardingThreshold(50);
+		appender.addAppender(delegate);
+		appender.start();
+	}
+
+	@AfterEach
+	void tearDown() {
+		delegate.release.countDown();
+		appender.stop();
+	}
+
+	@Test
+	void deliversEventsInOrder() throws InterruptedException {
+		// buffer de 8 eventos: INFO espera por espaço em vez de ser descartado
+		appender.setInfoPolicy(OverflowPolicy.BLOCK);
+		delegate.release.countDown();
+
+		for (int i = 0; i < 100; i++) {
+			appender.doAppend(event(Level.INFO, "message " + i));
+		}
+		appender.stop();
+
+		assertThat(delegate.events).hasSize(100);
+		assertThat(delegate.events.get(0).getFormattedMessage()).isEqualTo("message 0");
+		assertThat(delegate.events.get(99).getFormattedMessage()).isEqualTo("message 99");
+	}
+
+	@Test
+	void lowerLevelsAreDroppedFirstAndErrorsNeverDropped() throws InterruptedException {
+		// a primeira entrega fica presa no appender de destino, o buffer enche
+		appender.doAppend(event(Level.INFO, "in flight"));
+		assertThat(delegate.started.await(1, TimeUnit.SECONDS)).isTrue();
+
+		for (int i = 0; i < 20; i++) {
+			appender.doAppend(event(Level.DEBUG, "debug " + i));
+			appender.doAppend(event(Level.WARN, "warn " + i));
+		}
+
+		assertThat(appender.dropped(Level.DEBUG)).isGreaterThan(0);
+		assertThat(appender.dropped(Level.WARN)).isGreaterThan(0);
+		assertThat(appender.queueDepth()).isEqualTo(appender.queueCapacity());
+
+		final Thread logging = new Thread(() -> appender.doAppend(event(Level.ERROR, "error")));
+		logging.start();
+		logging.join(100);
+		assertThat(logging.isAlive()).as("ERROR waits for room in the buffer").isTrue();
+
+		delegate.release.countDown();
+		logging.join(1000);
+		appender.stop();
+
+		assertThat(appender.dropped(Level.ERROR)).isZero();
+		assertThat(delegate.events).extracting(ILoggingEvent::getFormattedMessage).contains("error");
+	}
+
+	@Test
+	void errorLoggedByTheWorkerIsDroppedInsteadOfBlocking() throws InterruptedException {
+		final CountDownLatch logged = new CountDownLatch(1);
+		final RingBufferAsyncAppender failing = new RingBufferAsyncAppender();
+		// appender de destino que, ao falhar, registra ERRORs pelo root: voltam ao próprio buffer
+		final AppenderBase<ILoggingEvent> reporting = new AppenderBase<>() {
+			@Override
+			protected void append(final ILoggingEvent event) {
+				if (logged.getCount() > 0) {
+					for (int i = 0; i < 20; i++) {
+						failing.doAppend(event(Level.ERROR, "delivery failed " + i));
+					}
+					logged.countDown();
+				}
+			}
+		};
+		reporting.setContext(context);
+		reporting.start();
+		failing.setContext(context);
+		failing.setName("async-failing");
+		failing.setCapacity(8);
+		failing.addAppender(reporting);
+		failing.start();
+
+		failing.doAppend(event(Level.INFO, "first"));
+
+		assertThat(logged.await(1, TimeUnit.SECONDS)).as("worker is not stuck waiting for itself").isTrue();
+		assertThat(failing.dropped(Level.ERROR)).isGreaterThan(0);
+		failing.stop();
+	}
+
+	private LoggingEvent event(final Level level, final String message) {
+		final LoggingEvent event = new LoggingEvent();
+		event.setLoggerContext(context);
+		event.setLoggerName("store.test");
+		event.setLevel(level);
+		event.setMessage(message);
+		event.setThreadName(Thread.currentThread().getName());
+		event.setTimeStamp(System.currentTimeMillis());
+		return event;
+	}
+
+	private static class BlockingAppender extends AppenderBase<ILoggingEvent> {
+
+		final List<ILoggingEvent> events = new CopyOnWriteArrayList<>();
+		final CountDownLatch started = new CountDownLatch(1);
+		final CountDownLatch release = new CountDownLatch(1);
+
+		@Override
+		protected void append(final ILoggingEvent event) {
+			started.countDown();
+			try {
+				release.await();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			events.add(event);
+		}
+	}
+}
@@ -0,0 +1,38 @@
+package store.order;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.util.List;
+
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+
+class OrderBatchWriterTest {
+
+	private final EntityManager entityManager = mock(EntityManager.class);
+
+	@Test
+	void flushesEveryFlushSizeOrdersAndAtTheEnd() {
+		final List<Order> orders = List.of(new Order(), new Order(), new Order());
+
+		assertThat(new OrderBatchWriter(entityManager, 2).persist(orders)).isEqualTo(orders);
+
+		verify(entityManager, times(3)).persist(any(Order.class));
+		verify(entityManager, times(2)).flush();
+		verify(entityManager, times(2)).clear();
+	}
+
+	@Test
+	void nonPositiveFlushSizeFlushesEveryOrder() {
+		final List<Order> orders = List.of(new Order(), new Order());
+
+		// batch_size 0 desliga o batch do Hibernate; aqui não pode virar divisão por zero
+		assertThat(new OrderBatchWriter(entityManager, 0).persist(orders)).isEqualTo(orders);
+
+		verify(entityManager, times(3)).flush();
+	}
+}
@@ -0,0 +1,91 @@
+package store.order;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Optional;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.hateoas.EntityModel;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import store.Money;
+import store.config.FanOutExecutor;
+import store.product.Product;
+import store.product.ProductRepository;
+
+class OrderControllerTest {
+
+	private final OrderRepository orderRepository = mock(OrderRepository.class);
+	private final ProductCatalogReplica productCatalogReplica = mock(ProductCatalogReplica.class);
+
+	private OrderController controller;
+
+	@BeforeEach
+	void setUp() {
+		RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+
+		final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+		final OrderProductsResolver resolver = new OrderProductsResolver(productCatalogReplica,
+				mock(OrderProductsCrossCut.class), mock(FanOutExecutor.class), meterRegistry, 50);
+		controller = new OrderController(new OrderModelAssembler(), orderRepository, mock(ProductRepository.class),
+				resolver, mock(OrderPricing.class), mock(OrderBatchIngest.class), new OrderMetrics(meterRegistry),
+				meterRegistry, 100);
+
+		when(productCatalogReplica.find(1L)).thenReturn(Product.builder()
+				.id(1L)
+				.title("Apple MacBook Pro 14 Inch Space Grey")
+				.price(Money.of("1999.99"))
+				.build());
+		when(orderRepository.findWithItemsById(7L)).thenReturn(Optional.of(loaded(OrderStatus.IN_PROGRESS)));
+		// save de um pedido desanexado devolve a cópia do merge, com os itens recarregados do banco
+		when(orderRepository.save(any())).thenAnswer(invocation ->
+				loaded(invocation.<Order>getArgument(0).getStatus()));
+	}
+
+	@AfterEach
+	void resetRequest() {
+		RequestContextHolder.resetRequestAttributes();
+	}
+
+	@Test
+	void cancelledOrderCarriesProductDetails() {
+		assertProductDetails(controller.cancel(7L), OrderStatus.CANCELLED);
+	}
+
+	@Test
+	void completedOrderCarriesProductDetails() {
+		assertProductDetails(controller.complete(7L), OrderStatus.COMPLETED);
+	}
+
+	@SuppressWarnings("unchecked")
+	private static void assertProductDetails(final ResponseEntity<?> response, final OrderStatus status) {
+		final Order order = ((EntityModel<Order>) response.getBody()).getContent();
+
+		assertThat(order.getStatus()).isEqualTo(status);
+		assertThat(order.getItems()).singleElement().satisfies(item -> {
+			assertThat(item.getProduct().getTitle()).isEqualTo("Apple MacBook Pro 14 Inch Space Grey");
+			assertThat(item.getProduct().getPrice()).isEqualTo(Money.of("1999.99"));
+		});
+	}
+
+	// como o Hibernate entrega o pedido: cada item só com a referência ao id do produto (@PostLoad)
+	private static Order loaded(final OrderStatus status) {
+		final OrderItem item = OrderItem.builder().id(70L).productId(1L).quantity(2).build();
+		item.productReference();
+		return Order.builder()
+				.id(7L)
+				.status(status)
+				.totalPrice(Money.of("3999.98"))
+				.items(List.of(item))
+				.build();
+	}
+}
@@ -0,0 +1,75 @@
+package store.order;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
+
+import java.util.stream.Stream;
+
+import org.assertj.core.groups.Tuple;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.Link;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+class OrderModelAssemblerTest {
+
+	private final OrderModelAssembler assembler = new OrderModelAssembler();
+
+	@BeforeEach
+	void bindRequest() {
+		final MockHttpServletRequest request = new MockHttpServletRequest("GET", "/orders");
+		request.setServerName("store.example");
+		request.setServerPort(8443);
+		request.setScheme("https");
+		request.setContextPath("/api");
+		RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+	}
+
+	@AfterEach
+	void resetRequest() {
+		RequestContextHolder.resetRequestAttributes();
+	}
+
+	@Test
+	void inProgressOrderLinksMatchLinkBuilder() {
+		final Order order = order(42L, OrderStatus.IN_PROGRESS);
+
+		final EntityModel<Order> model = assembler.toModel(order);
+
+		assertThat(model.getLinks()).extracting(link -> link.getRel().value(), Link::getHref).containsExactly(relAndHref(
+				linkTo(methodOn(OrderController.class).one(42L)).withSelfRel(),
+				linkTo(methodOn(OrderController.class).all(0, 100)).withRel("orders"),
+				linkTo(methodOn(OrderController.class).cancel(42L)).withRel("cancel"),
+				linkTo(methodOn(OrderController.class).complete(42L)).withRel("complete")));
+		assertThat(model.getRequiredLink("self").getHref()).isEqualTo("https://store.example:8443/api/orders/42");
+	}
+
+	@Test
+	void completedOrderHasNoStateTransitionLinks() {
+		final Order order = order(7L, OrderStatus.COMPLETED);
+
+		final EntityModel<Order> model = assembler.toModel(order);
+
+		assertThat(model.getLinks()).extracting(link -> link.getRel().value(), Link::getHref).containsExactly(relAndHref(
+				linkTo(methodOn(OrderController.class).one(7L)).withSelfRel(),
+				linkTo(methodOn(OrderController.class).all(0, 100)).withRel("orders")));
+	}
+
+	// Link.equals também compara as affordances que só o WebMvcLinkBuilder preenche: compara o que vai no JSON
+	private static Tuple[] relAndHref(final Link... links) {
+		return Stream.of(links).map(link -> tuple(link.getRel().value(), link.getHref())).toArray(Tuple[]::new);
+	}
+
+	private static Order order(final long id, final OrderStatus status) {
+		final Order order = new Order();
+		order.setId(id);
+		order.setStatus(status);
+		return order;
+	}
+}
@@ -0,0 +1,58 @@
+package store.order;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import store.Money;
+import store.product.Product;
+
+class OrderPricingTest {
+
+	private final OrderPricing pricing = new OrderPricing();
+
+	@Test
+	void totalIsTheSumOfPriceTimesQuantity() {
+		final Order order = order(item(1L, 2), item(2L, 3));
+
+		pricing.price(order, Map.of(1L, product(1L, Money.of("1999.99")), 2L, product(2L, Money.of("0.10"))));
+
+		assertThat(order.getTotalPrice()).isEqualTo(Money.of("4000.28"));
+		assertThat(order.getItems().get(0).getProduct().getPrice()).isEqualTo(Money.of("1999.99"));
+	}
+
+	@Test
+	void unknownProductIsRejected() {
+		final Order order = order(item(1L, 1), item(9L, 1));
+
+		assertThatThrownBy(() -> pricing.price(order, Map.of(1L, product(1L, Money.of("10.00")))))
+				.isInstanceOf(OrderItemProductNotFoundException.class);
+	}
+
+	@Test
+	void overflowingTotalFailsInsteadOfWrapping() {
+		final Order order = order(item(1L, Integer.MAX_VALUE), item(1L, Integer.MAX_VALUE));
+		// cada item cabe num long de centavos; a soma dos dois não
+		final Product expensive = product(1L, Money.ofCents(Long.MAX_VALUE / Integer.MAX_VALUE));
+
+		assertThatThrownBy(() -> pricing.price(order, Map.of(1L, expensive)))
+				.isInstanceOf(ArithmeticException.class);
+	}
+
+	private static Order order(final OrderItem... items) {
+		return Order.builder().items(new ArrayList<>(List.of(items))).build();
+	}
+
+	// o item chega do JSON só com a referência ao id do produto
+	private static OrderItem item(final Long productId, final int quantity) {
+		return OrderItem.builder().product(Product.builder().id(productId).build()).quantity(quantity).build();
+	}
+
+	private static Product product(final Long id, final Money price) {
+		return Product.builder().id(id).price(price).build();
+	}
+}
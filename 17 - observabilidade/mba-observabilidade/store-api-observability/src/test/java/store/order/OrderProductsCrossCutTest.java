@@ -0,0 +1,122 @@
+package store.order;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.List;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.client.HttpClientErrorException;
+import store.Money;
+import store.product.Product;
+import store.product.ProductChangedEvent;
+
+class OrderProductsCrossCutTest {
+
+	private final ProductsClient productsClient = mock(ProductsClient.class);
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+	private OrderProductsCrossCut crossCut;
+
+	@BeforeEach
+	void setUp() {
+		final ProductLookupCoalescer coalescer = new ProductLookupCoalescer(productsClient, meterRegistry, Duration.ZERO, 50);
+		crossCut = new OrderProductsCrossCut(coalescer, productsClient, meterRegistry,
+				100, Duration.ofMinutes(10), Duration.ofMinutes(1), Duration.ofHours(1));
+	}
+
+	@Test
+	void repeatedLookupIsServedFromCache() {
+		when(productsClient.fetchAll(List.of(1L))).thenReturn(List.of(product(1L)));
+
+		final Product first = crossCut.findById(1L);
+		final Product second = crossCut.findById(1L);
+
+		assertThat(second).isSameAs(first);
+		verify(productsClient, times(1)).fetchAll(List.of(1L));
+		assertThat(cacheGets("hit")).isEqualTo(1);
+		assertThat(cacheGets("miss")).isEqualTo(1);
+	}
+
+	@Test
+	void bulkLookupOnlyFetchesMissingProducts() {
+		when(productsClient.fetchAll(List.of(1L))).thenReturn(List.of(product(1L)));
+		when(productsClient.fetchAll(List.of(2L))).thenReturn(List.of(product(2L)));
+
+		crossCut.findById(1L);
+		final List<Product> products = crossCut.findAllById(List.of(1L, 2L));
+
+		assertThat(products).extracting(Product::getId).containsExactlyInAnyOrder(1L, 2L);
+		verify(productsClient, times(2)).fetchAll(anyCollection());
+		verify(productsClient).fetchAll(List.of(2L));
+		assertThat(crossCut.counterCacheAcerto.count()).isEqualTo(1);
+		assertThat(crossCut.counterCacheFalha.count()).isEqualTo(2);
+	}
+
+	@Test
+	void productChangeInvalidatesCachedEntry() {
+		when(productsClient.fetchAll(List.of(1L))).thenReturn(List.of(product(1L)));
+
+		crossCut.findById(1L);
+		crossCut.onProductChanged(new ProductChangedEvent(1L));
+		crossCut.findById(1L);
+
+		verify(productsClient, times(2)).fetchAll(List.of(1L));
+	}
+
+	@Test
+	void revalidationKeepsUnchangedProductAndReplacesChangedOne() {
+		final OrderProductsCrossCut.CachedProduct cached = new OrderProductsCrossCut.CachedProduct(product(1L), "\"0\"");
+		when(productsClient.fetchIfModified(1L, "\"0\"")).thenReturn(ResponseEntity.status(HttpStatus.NOT_MODIFIED).build());
+
+		assertThat(crossCut.revalidate(1L, cached)).isSameAs(cached);
+
+		final Product changed = product(1L);
+		changed.setTitle("changed");
+		final HttpHeaders headers = new HttpHeaders();
+		headers.setETag("\"1\"");
+		when(productsClient.fetchIfModified(1L, "\"0\"")).thenReturn(new ResponseEntity<>(changed, headers, HttpStatus.OK));
+
+		final OrderProductsCrossCut.CachedProduct reloaded = crossCut.revalidate(1L, cached);
+
+		assertThat(reloaded.product().getTitle()).isEqualTo("changed");
+		assertThat(reloaded.etag()).isEqualTo("\"1\"");
+		assertThat(crossCut.counterRevalidacaoNaoModificado.count()).isEqualTo(1);
+		assertThat(crossCut.counterRevalidacaoModificado.count()).isEqualTo(1);
+		assertThat(meterRegistry.get("app_custom_products_cache_revalidation_hit_ratio").gauge().value()).isEqualTo(0.5);
+	}
+
+	@Test
+	void revalidationOfRemovedProductDropsEntry() {
+		when(productsClient.fetchIfModified(1L, null)).thenThrow(HttpClientErrorException.create(
+				HttpStatus.NOT_FOUND, "Not Found", HttpHeaders.EMPTY, new byte[0], null));
+
+		assertThat(crossCut.revalidate(1L, new OrderProductsCrossCut.CachedProduct(product(1L), null))).isNull();
+	}
+
+	private double cacheGets(final String result) {
+		return meterRegistry.get("cache.gets")
+				.tag("cache", OrderProductsCrossCut.CACHE_NAME)
+				.tag("result", result)
+				.functionCounter()
+				.count();
+	}
+
+	private static Product product(final Long id) {
+		return Product.builder()
+				.id(id)
+				.title("product " + id)
+				.price(Money.of("10.00"))
+				.build();
+	}
+}
@@ -0,0 +1,93 @@
+package store.order;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import store.Money;
+import store.product.Product;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class OrderRepositoryFetchPlanTest {
+
+	private static final int ORDERS = 30;
+	private static final int ITEMS_PER_ORDER = 3;
+
+	@Autowired
+	private OrderRepository orderRepository;
+
+	@Autowired
+	private TestEntityManager entityManager;
+
+	private Statistics statistics;
+
+	@BeforeEach
+	void setUp() {
+		for (int o = 0; o < ORDERS; o++) {
+			final List<OrderItem> items = new ArrayList<>();
+			for (int i = 0; i < ITEMS_PER_ORDER; i++) {
+				items.add(OrderItem.builder()
+						.product(Product.builder().id((long) i + 1).build())
+						.quantity(i + 1)
+						.build());
+			}
+			entityManager.persist(Order.builder()
+					.status(OrderStatus.IN_PROGRESS)
+					.totalPrice(Money.of("10.00"))
+					.items(items)
+					.build());
+		}
+		entityManager.flush();
+		entityManager.clear();
+
+		statistics = entityManager.getEntityManager().getEntityManagerFactory()
+				.unwrap(SessionFactory.class)
+				.getStatistics();
+		statistics.clear();
+	}
+
+	@Test
+	void pageOfOrdersAndItemsIsLoadedInTwoStatements() {
+		final Slice<Order> orders = orderRepository.findByIdGreaterThanOrderByIdAsc(0L, PageRequest.ofSize(25));
+
+		final long items = orders.stream().mapToLong(order -> order.getItems().size()).sum();
+
+		assertThat(orders.getNumberOfElements()).isEqualTo(25);
+		assertThat(items).isEqualTo(25L * ITEMS_PER_ORDER);
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+	}
+
+	@Test
+	void singleOrderIsLoadedWithItemsInOneStatement() {
+		final Long id = orderRepository.findByIdGreaterThanOrderByIdAsc(0L, PageRequest.ofSize(1))
+				.getContent().get(0).getId();
+		entityManager.clear();
+		statistics.clear();
+
+		final Order order = orderRepository.findWithItemsById(id).orElseThrow();
+
+		assertThat(order.getItems()).hasSize(ITEMS_PER_ORDER);
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+	}
+
+	@Test
+	void itemsCarryOnlyTheProductId() {
+		final Order order = orderRepository.findByIdGreaterThanOrderByIdAsc(0L, PageRequest.ofSize(1))
+				.getContent().get(0);
+
+		assertThat(order.getItems())
+				.extracting(item -> item.getProduct().getId())
+				.containsExactlyInAnyOrder(1L, 2L, 3L);
+		assertThat(statistics.getEntityStatistics(Product.class.getName()).getLoadCount()).isZero();
+	}
+}
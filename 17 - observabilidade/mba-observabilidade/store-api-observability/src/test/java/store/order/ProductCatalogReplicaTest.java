@@ -0,0 +1,68 @@
+package store.order;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import store.product.Product;
+import store.product.ProductChanges;
+import store.product.ProductSnapshot;
+
+class ProductCatalogReplicaTest {
+
+	private final ProductsClient productsClient = mock(ProductsClient.class);
+
+	private ProductCatalogReplica replica;
+
+	@BeforeEach
+	void setUp() {
+		replica = new ProductCatalogReplica(productsClient, new SimpleMeterRegistry(), true, 50);
+		when(productsClient.snapshot()).thenReturn(new ProductSnapshot(30, List.of(product(1, "a"), product(2, "b"))));
+		replica.sync();
+	}
+
+	@Test
+	void changesWithinTheOverlapAreApplied() {
+		when(productsClient.changesSince(0)).thenReturn(new ProductChanges(31, List.of(product(2, "b2")), List.of(1L), false));
+
+		replica.sync();
+
+		assertThat(replica.find(1)).isNull();
+		assertThat(replica.find(2).getTitle()).isEqualTo("b2");
+		verify(productsClient, times(1)).snapshot();
+	}
+
+	@Test
+	void restartedChangeLogReloadsTheCatalog() {
+		// serviço de produtos recriado: log vazio e produtos renumerados
+		when(productsClient.changesSince(0)).thenReturn(new ProductChanges(0, List.of(), List.of(), false));
+		when(productsClient.snapshot()).thenReturn(new ProductSnapshot(0, List.of(product(1, "new"))));
+
+		replica.sync();
+
+		assertThat(replica.find(1).getTitle()).isEqualTo("new");
+		assertThat(replica.find(2)).isNull();
+	}
+
+	@Test
+	void restartedChangeLogBelowTheAppliedVersionReloadsTheCatalog() {
+		when(productsClient.changesSince(0)).thenReturn(new ProductChanges(3, List.of(product(7, "g")), List.of(), false));
+		when(productsClient.snapshot()).thenReturn(new ProductSnapshot(3, List.of(product(7, "g"))));
+
+		replica.sync();
+
+		assertThat(replica.find(7).getTitle()).isEqualTo("g");
+		assertThat(replica.find(1)).isNull();
+	}
+
+	private static Product product(final long id, final String title) {
+		return Product.builder().id(id).title(title).build();
+	}
+}
@@ -0,0 +1,53 @@
+package store.order;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import store.product.Product;
+
+class ProductCatalogTest {
+
+	@Test
+	void snapshotIsLookedUpById() {
+		final ProductCatalog catalog = ProductCatalog.of(7, List.of(product(30, "c"), product(10, "a"), product(20, "b")));
+
+		assertThat(catalog.version).isEqualTo(7);
+		assertThat(catalog.size()).isEqualTo(3);
+		assertThat(catalog.get(20).getTitle()).isEqualTo("b");
+		assertThat(catalog.get(15)).isNull();
+	}
+
+	@Test
+	void deltaAddsReplacesAndRemovesProducts() {
+		final ProductCatalog snapshot = ProductCatalog.of(7, List.of(product(10, "a"), product(20, "b"), product(30, "c")));
+
+		final ProductCatalog catalog = snapshot.apply(9, List.of(product(40, "d"), product(20, "b2"), product(5, "e")), List.of(30L, 99L));
+
+		assertThat(catalog.version).isEqualTo(9);
+		assertThat(catalog.size()).isEqualTo(4);
+		assertThat(catalog.get(5).getTitle()).isEqualTo("e");
+		assertThat(catalog.get(20).getTitle()).isEqualTo("b2");
+		assertThat(catalog.get(30)).isNull();
+		assertThat(catalog.get(40).getTitle()).isEqualTo("d");
+		assertThat(snapshot.get(20).getTitle()).as("snapshot is not changed").isEqualTo("b");
+		assertThat(snapshot.get(30)).isNotNull();
+	}
+
+	@Test
+	void reapplyingADeltaChangesNothing() {
+		final ProductCatalog catalog = ProductCatalog.of(1, List.of(product(10, "a")))
+				.apply(2, List.of(product(20, "b")), List.of(10L));
+
+		final ProductCatalog again = catalog.apply(2, List.of(product(20, "b")), List.of(10L));
+
+		assertThat(again.size()).isEqualTo(1);
+		assertThat(again.get(20).getTitle()).isEqualTo("b");
+		assertThat(again.get(10)).isNull();
+	}
+
+	private static Product product(final long id, final String title) {
+		return Product.builder().id(id).title(title).build();
+	}
+}
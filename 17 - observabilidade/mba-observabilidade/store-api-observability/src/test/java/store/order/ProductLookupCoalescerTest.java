@@ -0,0 +1,129 @@
+package store.order;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import store.product.Product;
+
+class ProductLookupCoalescerTest {
+
+	private final ProductsClient productsClient = mock(ProductsClient.class);
+
+	@Test
+	void concurrentLookupsOfTheSameIdShareOneCall() throws Exception {
+		final ProductLookupCoalescer coalescer = coalescer(Duration.ZERO, 50);
+		final CountDownLatch called = new CountDownLatch(1);
+		final CountDownLatch release = new CountDownLatch(1);
+		when(productsClient.fetchAll(List.of(1L))).thenAnswer(invocation -> {
+			called.countDown();
+			release.await();
+			return List.of(product(1L));
+		});
+
+		final CompletableFuture<Product> first = CompletableFuture.supplyAsync(() -> coalescer.lookup(1L));
+		assertThat(called.await(1, TimeUnit.SECONDS)).isTrue();
+		final CompletableFuture<Product> second = CompletableFuture.supplyAsync(() -> coalescer.lookup(1L));
+		waitUntil(() -> coalescer.counterBuscasAgrupadas.count() == 1);
+		release.countDown();
+
+		assertThat(second.get(1, TimeUnit.SECONDS)).isSameAs(first.get(1, TimeUnit.SECONDS));
+		verify(productsClient, times(1)).fetchAll(anyCollection());
+	}
+
+	@Test
+	void differentIdsWithinTheWindowAreFetchedInOneCall() throws Exception {
+		final ProductLookupCoalescer coalescer = coalescer(Duration.ofMillis(500), 50);
+		when(productsClient.fetchAll(anyCollection())).thenAnswer(invocation ->
+				invocation.<Collection<Long>>getArgument(0).stream().map(ProductLookupCoalescerTest::product).toList());
+
+		final CompletableFuture<Product> first = CompletableFuture.supplyAsync(() -> coalescer.lookup(1L));
+		final CompletableFuture<Product> second = CompletableFuture.supplyAsync(() -> coalescer.lookup(2L));
+
+		assertThat(first.get(2, TimeUnit.SECONDS).getId()).isEqualTo(1L);
+		assertThat(second.get(2, TimeUnit.SECONDS).getId()).isEqualTo(2L);
+		assertThat(fetchedBatches()).singleElement().satisfies(ids -> assertThat(ids).containsExactlyInAnyOrder(1L, 2L));
+		assertThat(coalescer.summaryOcupacaoJanela.max()).isEqualTo(2);
+	}
+
+	@Test
+	void fullWindowIsFlushedWithoutWaitingForTheWindow() throws Exception {
+		final ProductLookupCoalescer coalescer = coalescer(Duration.ofSeconds(10), 2);
+		when(productsClient.fetchAll(anyCollection())).thenAnswer(invocation ->
+				invocation.<Collection<Long>>getArgument(0).stream().map(ProductLookupCoalescerTest::product).toList());
+		final long start = System.nanoTime();
+
+		// o líder abre a janela com o 1; quem traz o 2 a completa e envia
+		final CompletableFuture<Product> leader = CompletableFuture.supplyAsync(() -> coalescer.lookup(1L));
+		waitUntil(() -> coalescer.counterBuscas.count() == 1);
+		final Map<Long, Product> products = coalescer.lookupAll(List.of(2L));
+
+		assertThat(products).containsOnlyKeys(2L);
+		assertThat(leader.get(2, TimeUnit.SECONDS).getId()).isEqualTo(1L);
+		assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(2));
+		assertThat(fetchedBatches()).singleElement().satisfies(ids -> assertThat(ids).containsExactlyInAnyOrder(1L, 2L));
+	}
+
+	@Test
+	void failedCallFailsEveryWaiterAndIsNotKeptInFlight() throws Exception {
+		final ProductLookupCoalescer coalescer = coalescer(Duration.ofMillis(500), 50);
+		when(productsClient.fetchAll(anyCollection()))
+				.thenThrow(new ProductServiceUnavailableException("product service down", null))
+				.thenReturn(List.of(product(1L)));
+
+		final CompletableFuture<Product> first = CompletableFuture.supplyAsync(() -> coalescer.lookup(1L));
+		final CompletableFuture<Product> second = CompletableFuture.supplyAsync(() -> coalescer.lookup(2L));
+
+		assertThatThrownBy(() -> first.get(2, TimeUnit.SECONDS))
+				.isInstanceOf(ExecutionException.class)
+				.hasCauseInstanceOf(ProductServiceUnavailableException.class);
+		assertThatThrownBy(() -> second.get(2, TimeUnit.SECONDS))
+				.isInstanceOf(ExecutionException.class)
+				.hasCauseInstanceOf(ProductServiceUnavailableException.class);
+		verify(productsClient, times(1)).fetchAll(anyCollection());
+
+		// nada ficou em andamento: a próxima busca do 1 chama o serviço de novo
+		assertThat(coalescer.lookup(1L).getId()).isEqualTo(1L);
+		verify(productsClient, times(2)).fetchAll(anyCollection());
+	}
+
+	private ProductLookupCoalescer coalescer(final Duration window, final int maxBatch) {
+		return new ProductLookupCoalescer(productsClient, new SimpleMeterRegistry(), window, maxBatch);
+	}
+
+	@SuppressWarnings("unchecked")
+	private List<Collection<Long>> fetchedBatches() {
+		final ArgumentCaptor<Collection<Long>> ids = ArgumentCaptor.forClass(Collection.class);
+		verify(productsClient, times(1)).fetchAll(ids.capture());
+		return ids.getAllValues();
+	}
+
+	private static void waitUntil(final BooleanSupplier condition) throws InterruptedException {
+		final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(1);
+		while (!condition.getAsBoolean()) {
+			assertThat(System.nanoTime()).as("condition met within 1s").isLessThan(deadline);
+			Thread.sleep(5);
+		}
+	}
+
+	private static Product product(final Long id) {
+		return Product.builder().id(id).title("product " + id).build();
+	}
+}
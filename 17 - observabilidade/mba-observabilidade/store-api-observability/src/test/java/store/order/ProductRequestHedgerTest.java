@@ -0,0 +1,110 @@
+package store.order;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import store.config.ContextPropagatingTaskDecorator;
+
+class ProductRequestHedgerTest {
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+	private ProductRequestHedger hedger;
+
+	@AfterEach
+	void shutdown() {
+		hedger.shutdown();
+	}
+
+	@Test
+	void hedgeAnswersWhenTheFirstAttemptIsSlow() {
+		hedger = hedger(1.0);
+		final AtomicInteger attempts = new AtomicInteger();
+
+		final String result = hedger.call(() -> attempts.incrementAndGet() == 1 ? sleepAndReturn(2000, "first") : "hedge");
+
+		assertThat(result).isEqualTo("hedge");
+		assertThat(hedger.counterHedges.count()).isEqualTo(1);
+		assertThat(hedger.counterHedgesVencedores.count()).isEqualTo(1);
+	}
+
+	@Test
+	void fastAnswerIsNotHedged() {
+		// atraso folgado: a primeira tarefa num pool frio ainda cria a thread
+		hedger = hedger(1.0, Duration.ofSeconds(1));
+
+		assertThat(hedger.call(() -> "first")).isEqualTo("first");
+		assertThat(hedger.counterHedges.count()).isZero();
+	}
+
+	@Test
+	void hedgesStayWithinTheBudget() {
+		hedger = hedger(0.5);
+		final Supplier<String> slow = () -> sleepAndReturn(100, "slow");
+
+		for (int i = 0; i < 4; i++) {
+			hedger.call(slow);
+		}
+
+		assertThat(hedger.counterHedges.count()).isEqualTo(2);
+		assertThat(hedger.counterHedgesSemOrcamento.count()).isEqualTo(2);
+	}
+
+	@Test
+	void failureIsReportedOnlyWhenBothAttemptsFail() {
+		hedger = hedger(1.0);
+		final AtomicInteger attempts = new AtomicInteger();
+
+		final String result = hedger.call(() -> {
+			if (attempts.incrementAndGet() == 1) {
+				sleepAndReturn(100, null);
+				throw new IllegalStateException("first attempt failed");
+			}
+			return "hedge";
+		});
+		assertThat(result).isEqualTo("hedge");
+
+		assertThatThrownBy(() -> hedger.call(() -> {
+			sleepAndReturn(100, null);
+			throw new IllegalStateException("product service down");
+		})).isInstanceOf(IllegalStateException.class).hasMessage("product service down");
+	}
+
+	@Test
+	void delayFollowsTheObservedPercentile() {
+		hedger = hedger(1.0);
+		for (int i = 0; i < 100; i++) {
+			hedger.timerPrimeiraTentativa.record(i < 90 ? 5 : 200, TimeUnit.MILLISECONDS);
+		}
+
+		hedger.updateDelay();
+
+		assertThat(hedger.delayNanos()).isBetween(TimeUnit.MILLISECONDS.toNanos(150), TimeUnit.MILLISECONDS.toNanos(250));
+	}
+
+	private ProductRequestHedger hedger(final double budget) {
+		return hedger(budget, Duration.ofMillis(20));
+	}
+
+	private ProductRequestHedger hedger(final double budget, final Duration minDelay) {
+		return new ProductRequestHedger(meterRegistry, new ContextPropagatingTaskDecorator(),
+				true, 0.95, minDelay, budget, 4);
+	}
+
+	private static String sleepAndReturn(final long millis, final String value) {
+		try {
+			Thread.sleep(millis);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		return value;
+	}
+}
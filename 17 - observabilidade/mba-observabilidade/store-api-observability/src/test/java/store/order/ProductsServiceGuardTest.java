@@ -0,0 +1,147 @@
+package store.order;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.RestTemplate;
+import store.config.ContextPropagatingTaskDecorator;
+import store.config.ProductsResilienceProperties;
+import store.product.Product;
+
+/**
+ * Runs the product client against a local stub of GET /products?ids= whose response delay is
+ * set by each test.
+ */
+class ProductsServiceGuardTest {
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private final AtomicLong delayMillis = new AtomicLong();
+	private final CountDownLatch received = new CountDownLatch(1);
+
+	private HttpServer server;
+
+	@BeforeEach
+	void startStub() throws IOException {
+		server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+		server.createContext("/products", this::products);
+		server.setExecutor(null);
+		server.start();
+	}
+
+	@AfterEach
+	void stopStub() {
+		server.stop(0);
+	}
+
+	@Test
+	void slowProductServiceOpensTheBreakerAndLastKnownCopiesAreServed() throws InterruptedException {
+		final ProductsServiceGuard guard = guard(10, 4);
+		final OrderProductsCrossCut crossCut = crossCut(client(guard), Duration.ofMillis(200));
+
+		assertThat(crossCut.findById(1L).isStale()).isFalse();
+		Thread.sleep(300);
+
+		// 3 de 4 chamadas acima de 100ms abrem o circuito
+		delayMillis.set(250);
+		crossCut.findById(2L);
+		crossCut.findById(3L);
+		crossCut.findById(4L);
+		assertThat(guard.state()).isEqualTo(CircuitBreaker.State.OPEN);
+
+		final Product stale = crossCut.findById(1L);
+		assertThat(stale.getId()).isEqualTo(1L);
+		assertThat(stale.isStale()).isTrue();
+		assertThatThrownBy(() -> crossCut.findById(5L)).isInstanceOf(ProductServiceUnavailableException.class);
+
+		assertThat(crossCut.counterCopiaAntiga.count()).isEqualTo(1);
+		assertThat(guard.counterRejeitadasCircuito.count()).isEqualTo(2);
+		assertThat(meterRegistry.get("app_custom_products_circuit_breaker_transitions")
+				.tag("from", "closed")
+				.tag("to", "open")
+				.counter()
+				.count()).isEqualTo(1);
+		assertThat(meterRegistry.get("app_custom_products_circuit_breaker_state").gauge().value()).isEqualTo(1);
+	}
+
+	@Test
+	void fullBulkheadRejectsWithoutOpeningTheBreaker() throws Exception {
+		final ProductsServiceGuard guard = guard(1, 100);
+		final ProductsClient client = client(guard);
+
+		delayMillis.set(500);
+		final CompletableFuture<?> first = CompletableFuture.runAsync(() -> client.fetchAll(List.of(1L)));
+		assertThat(received.await(5, TimeUnit.SECONDS)).isTrue();
+
+		assertThatThrownBy(() -> client.fetchAll(List.of(2L)))
+				.isInstanceOf(ProductServiceUnavailableException.class);
+		first.get(5, TimeUnit.SECONDS);
+
+		assertThat(guard.counterRejeitadasBulkhead.count()).isEqualTo(1);
+		assertThat(guard.state()).isEqualTo(CircuitBreaker.State.CLOSED);
+	}
+
+	private ProductsServiceGuard guard(final int maxConcurrentCalls, final int slidingWindowSize) {
+		return new ProductsServiceGuard(new ProductsResilienceProperties(
+				new ProductsResilienceProperties.Bulkhead(maxConcurrentCalls, Duration.ZERO),
+				new ProductsResilienceProperties.CircuitBreaker(slidingWindowSize, slidingWindowSize, 50,
+						Duration.ofMillis(100), 50, Duration.ofMinutes(1), 1)),
+				meterRegistry);
+	}
+
+	private ProductsClient client(final ProductsServiceGuard guard) {
+		final ProductRequestHedger hedger = new ProductRequestHedger(meterRegistry, new ContextPropagatingTaskDecorator(),
+				false, 0.95, Duration.ofMillis(20), 0.05, 4);
+		final ProductsClient client = new ProductsClient(new RestTemplate(), guard, hedger);
+		ReflectionTestUtils.setField(client, "apiProdutsEndpointUrl",
+				"http://localhost:" + server.getAddress().getPort() + "/products");
+		ReflectionTestUtils.setField(client, "binary", false);
+		return client;
+	}
+
+	private OrderProductsCrossCut crossCut(final ProductsClient client, final Duration expireAfterWrite) {
+		final ProductLookupCoalescer coalescer = new ProductLookupCoalescer(client, meterRegistry, Duration.ZERO, 50);
+		return new OrderProductsCrossCut(coalescer, client, meterRegistry,
+				100, expireAfterWrite, Duration.ofMinutes(1), Duration.ofHours(1));
+	}
+
+	// GET /products?ids=1,2 em HAL+JSON, depois do atraso configurado
+	private void products(final HttpExchange exchange) throws IOException {
+		received.countDown();
+		try {
+			Thread.sleep(delayMillis.get());
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		final String ids = exchange.getRequestURI().getQuery().replaceFirst("^ids=", "");
+		final String body = Stream.of(ids.split(","))
+				.map(id -> "{\"id\":" + id + ",\"title\":\"product " + id + "\",\"price\":10.00}")
+				.collect(Collectors.joining(",", "{\"_embedded\":{\"products\":[", "]}}"));
+		final byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+		exchange.getResponseHeaders().set("Content-Type", "application/hal+json");
+		exchange.sendResponseHeaders(200, bytes.length);
+		try (OutputStream out = exchange.getResponseBody()) {
+			out.write(bytes);
+		}
+	}
+}
@@ -0,0 +1,108 @@
+package store.product;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.IanaLinkRelations;
+import org.springframework.hateoas.PagedModel;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import store.Money;
+import store.config.StreamingExport;
+
+@DataJpaTest
+class ProductControllerTest {
+
+	@Autowired
+	private ProductRepository repository;
+
+	@Autowired
+	private TestEntityManager entityManager;
+
+	private ProductController controller;
+
+	@BeforeEach
+	void setUp() {
+		RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+		controller = new ProductController(repository, new ProductModelAssembler(),
+				mock(ApplicationEventPublisher.class), mock(StreamingExport.class), mock(ProductChangeLog.class));
+		ReflectionTestUtils.setField(controller, "maxPageSize", 2);
+	}
+
+	@AfterEach
+	void resetRequest() {
+		RequestContextHolder.resetRequestAttributes();
+	}
+
+	@Test
+	void postWithExistingIdUpdatesTheProductAndItsVersion() {
+		final Long id = entityManager.persistAndFlush(product(null, "Sports Sneakers", "109.99")).getId();
+		final Long version = repository.findById(id).orElseThrow().getVersion();
+		entityManager.clear();
+
+		// o JSON da requisição não traz a versão
+		final ResponseEntity<?> response = controller.newProduct(product(id, "Sports Sneakers Off White", "99.99"));
+		entityManager.flush();
+		entityManager.clear();
+
+		assertThat(response.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+		assertThat(content(response).getId()).isEqualTo(id);
+		final Product updated = repository.findById(id).orElseThrow();
+		assertThat(updated.getTitle()).isEqualTo("Sports Sneakers Off White");
+		assertThat(updated.getPrice()).isEqualTo(Money.of("99.99"));
+		assertThat(updated.getVersion()).isGreaterThan(version);
+		assertThat(repository.count()).isEqualTo(1);
+	}
+
+	@Test
+	void postWithUnknownIdCreatesTheProduct() {
+		final ResponseEntity<?> response = controller.newProduct(product(999L, "Apple MacBook Pro", "1999.99"));
+		entityManager.flush();
+
+		final Long id = content(response).getId();
+		assertThat(id).isNotNull();
+		assertThat(repository.findById(id).orElseThrow().getTitle()).isEqualTo("Apple MacBook Pro");
+		assertThat(repository.count()).isEqualTo(1);
+	}
+
+	@Test
+	void pageLinksFollowTheClampedPageAndSize() {
+		for (int i = 0; i < 3; i++) {
+			entityManager.persist(product(null, "product " + i, "10.00"));
+		}
+
+		final PagedModel<EntityModel<Product>> page = controller.allPaged(-1, 100000);
+
+		assertThat(page.getMetadata().getNumber()).isZero();
+		assertThat(page.getMetadata().getSize()).isEqualTo(2);
+		assertThat(page.getRequiredLink(IanaLinkRelations.SELF).getHref()).endsWith("/products?page=0&size=2");
+		assertThat(page.getRequiredLink(IanaLinkRelations.NEXT).getHref()).endsWith("/products?page=1&size=2");
+		assertThat(page.getLink(IanaLinkRelations.PREV)).isEmpty();
+	}
+
+	@SuppressWarnings("unchecked")
+	private static Product content(final ResponseEntity<?> response) {
+		return ((EntityModel<Product>) response.getBody()).getContent();
+	}
+
+	private static Product product(final Long id, final String title, final String price) {
+		return Product.builder()
+				.id(id)
+				.category("mens-shoes")
+				.title(title)
+				.price(Money.of(price))
+				.build();
+	}
+}
@@ -0,0 +1,127 @@
+package store.tracing;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.sdk.testing.exporter.InMemorySpanExporter;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SimpleSpanProcessor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class TailSamplingSpanProcessorTest {
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private final InMemorySpanExporter exporter = InMemorySpanExporter.create();
+
+	private SdkTracerProvider tracerProvider;
+	private TailSamplingSpanProcessor tailSampling;
+	private AdaptiveSampler sampler;
+
+	private Tracer tracer(final double probability, final int maxTracesPerSecond, final int maxSpans) {
+		sampler = new AdaptiveSampler(meterRegistry, probability, maxTracesPerSecond, true);
+		tailSampling = new TailSamplingSpanProcessor(exporter, meterRegistry, Duration.ofMillis(500), maxSpans);
+		tracerProvider = SdkTracerProvider.builder()
+				.setSampler(sampler)
+				.addSpanProcessor(SimpleSpanProcessor.create(exporter))
+				.addSpanProcessor(tailSampling)
+				.build();
+		return tracerProvider.get("test");
+	}
+
+	@AfterEach
+	void tearDown() {
+		tracerProvider.close();
+	}
+
+	@Test
+	void headSamplingIsCappedPerSecond() {
+		final Tracer tracer = tracer(1.0, 2, 100);
+
+		for (int i = 0; i < 10; i++) {
+			trace(tracer, 1, 10, false);
+		}
+
+		assertThat(sampler.counterAmostrado.count()).isBetween(2.0, 4.0);
+		assertThat(sampler.counterLimitado.count()).isBetween(6.0, 8.0);
+		assertThat(exporter.getFinishedSpanItems()).hasSize((int) sampler.counterAmostrado.count() * 2);
+	}
+
+	@Test
+	void unsampledFastTraceIsDropped() {
+		final Tracer tracer = tracer(0.0, 10, 100);
+
+		trace(tracer, 3, 10, false);
+
+		assertThat(exporter.getFinishedSpanItems()).isEmpty();
+		assertThat(tailSampling.counterDescartado.count()).isEqualTo(1);
+		assertThat(tailSampling.bufferedSpans()).isZero();
+	}
+
+	@Test
+	void unsampledSlowTraceIsKeptWhole() {
+		final Tracer tracer = tracer(0.0, 10, 100);
+
+		trace(tracer, 3, 800, false);
+
+		assertThat(exporter.getFinishedSpanItems()).hasSize(4)
+				.allMatch(span -> span.getSpanContext().isSampled());
+		assertThat(tailSampling.counterMantidoLento.count()).isEqualTo(1);
+	}
+
+	@Test
+	void unsampledTraceWithFailedChildIsKept() {
+		final Tracer tracer = tracer(0.0, 10, 100);
+
+		trace(tracer, 2, 10, true);
+
+		assertThat(exporter.getFinishedSpanItems()).extracting(SpanData::getName)
+				.containsExactlyInAnyOrder("child-0", "child-1", "root");
+		assertThat(tailSampling.counterMantidoErro.count()).isEqualTo(1);
+	}
+
+	@Test
+	void bufferIsBoundedByEvictingTheOldestTrace() {
+		final Tracer tracer = tracer(0.0, 10, 5);
+
+		// raízes ainda abertas: os filhos ficam no buffer
+		final Span first = tracer.spanBuilder("first").startSpan();
+		children(tracer, first, 4, false);
+		final Span second = tracer.spanBuilder("second").startSpan();
+		children(tracer, second, 4, false);
+
+		assertThat(tailSampling.bufferedSpans()).isEqualTo(4);
+		assertThat(tailSampling.counterEvictado.count()).isEqualTo(4);
+		assertThat(meterRegistry.get("app_custom_tracing_tail_buffer_spans").gauge().value()).isEqualTo(4);
+
+		first.end();
+		second.end();
+	}
+
+	private void trace(final Tracer tracer, final int children, final long rootMillis, final boolean failChild) {
+		final long start = System.nanoTime();
+		final Span root = tracer.spanBuilder("root").setStartTimestamp(start, TimeUnit.NANOSECONDS).startSpan();
+		children(tracer, root, children, failChild);
+		root.end(start + TimeUnit.MILLISECONDS.toNanos(rootMillis), TimeUnit.NANOSECONDS);
+	}
+
+	private void children(final Tracer tracer, final Span root, final int children, final boolean failLast) {
+		for (int i = 0; i < children; i++) {
+			final Span child = tracer.spanBuilder("child-" + i)
+					.setParent(Context.current().with(root))
+					.startSpan();
+			if (failLast && i == children - 1) {
+				child.setStatus(StatusCode.ERROR);
+			}
+			child.end();
+		}
+	}
+}